@@ -0,0 +1,47 @@
+package com.hcl.customerservice.benchmark;
+
+import com.hcl.customerservice.security.InMemoryRefreshTokenStore;
+import com.hcl.customerservice.security.JwtService;
+import com.hcl.customerservice.security.RefreshTokenService;
+import com.hcl.customerservice.security.VerifiedTokenCache;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds the beans under test without a Spring context, wired the same way as application.yml.
+ */
+final class BenchmarkSupport {
+
+    static final String SECRET = "benchmark-secret-key-benchmark-secret-key";
+    static final long EXPIRATION_MS = 3_600_000L;
+
+    private BenchmarkSupport() {
+    }
+
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "expiration", EXPIRATION_MS);
+        jwtService.init();
+        return jwtService;
+    }
+
+    static RefreshTokenService refreshTokenService(JwtService jwtService) {
+        RefreshTokenService service = new RefreshTokenService();
+        ReflectionTestUtils.setField(service, "jwtService", jwtService);
+        ReflectionTestUtils.setField(service, "store", new InMemoryRefreshTokenStore());
+        service.init();
+        return service;
+    }
+
+    static VerifiedTokenCache tokenCache(boolean enabled) {
+        VerifiedTokenCache cache = new VerifiedTokenCache();
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        return cache;
+    }
+
+    static UserDetails user() {
+        return User.withUsername("admin").password("{noop}admin123").roles("ADMIN").build();
+    }
+}
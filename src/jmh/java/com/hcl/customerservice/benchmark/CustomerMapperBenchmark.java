@@ -0,0 +1,43 @@
+package com.hcl.customerservice.benchmark;
+
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.mapper.CustomerMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerMapperBenchmark {
+
+    private final CustomerRequest request = new CustomerRequest("Jane Doe", "jane.doe@example.com");
+    private final Customer customer = Customer.builder()
+            .id(42L)
+            .name("Jane Doe")
+            .email("jane.doe@example.com")
+            .build();
+
+    @Benchmark
+    public Customer toEntity() {
+        return CustomerMapper.toEntity(request);
+    }
+
+    @Benchmark
+    public CustomerResponse toResponse() {
+        return CustomerMapper.toResponse(customer);
+    }
+}
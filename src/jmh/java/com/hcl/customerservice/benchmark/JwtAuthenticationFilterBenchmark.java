@@ -0,0 +1,76 @@
+package com.hcl.customerservice.benchmark;
+
+import com.hcl.customerservice.security.InMemoryRefreshTokenStore;
+import com.hcl.customerservice.security.JwtAuthenticationFilter;
+import com.hcl.customerservice.security.JwtService;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full bearer-token path through the servlet filter: header parse, verification (or cache hit),
+ * principal lookup and SecurityContext population.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"true", "false"})
+    public boolean tokenCache;
+
+    @Param({"false", "true"})
+    public boolean statelessPrincipal;
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+    private final FilterChain chain = (request, response) -> { };
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = BenchmarkSupport.jwtService();
+        filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtService", jwtService);
+        ReflectionTestUtils.setField(filter, "userDetailsService",
+                new InMemoryUserDetailsManager(BenchmarkSupport.user()));
+        ReflectionTestUtils.setField(filter, "tokenCache", BenchmarkSupport.tokenCache(tokenCache));
+        ReflectionTestUtils.setField(filter, "tokenStore", new InMemoryRefreshTokenStore());
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", statelessPrincipal);
+        authorization = "Bearer " + BenchmarkSupport.refreshTokenService(jwtService)
+                .issue(BenchmarkSupport.user()).accessToken();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/1");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @TearDown(Level.Invocation)
+    public void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+}
@@ -0,0 +1,75 @@
+package com.hcl.customerservice.benchmark;
+
+import com.hcl.customerservice.security.JwtService;
+import com.hcl.customerservice.security.RefreshTokenService;
+import com.hcl.customerservice.security.TokenPair;
+import com.hcl.customerservice.security.VerifiedToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwtService;
+    private RefreshTokenService refreshTokenService;
+    private UserDetails user;
+    private List<String> roles;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkSupport.jwtService();
+        refreshTokenService = BenchmarkSupport.refreshTokenService(jwtService);
+        user = BenchmarkSupport.user();
+        roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        token = refreshTokenService.issue(user).accessToken();
+    }
+
+    // One signature, as for each access token RefreshTokenService issues.
+    @Benchmark
+    public String generateAccessToken() {
+        return jwtService.generateToken(user.getUsername(), roles, VerifiedToken.ACCESS, UUID.randomUUID().toString(),
+                "benchmark-family", Instant.now().plus(jwtService.getAccessTokenTtl()));
+    }
+
+    // A whole login: access and refresh token signed and the session registered in the store.
+    @Benchmark
+    public TokenPair issue() {
+        return refreshTokenService.issue(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token, user);
+    }
+
+    @Benchmark
+    public VerifiedToken parseToken() {
+        return jwtService.parseToken(token);
+    }
+}
@@ -0,0 +1,67 @@
+package com.hcl.customerservice.benchmark;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.typeahead.impl.InMemoryTypeaheadIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead lookups against an index of synthetic customers: one keystroke of a single word, a
+ * longer word, two words, and an email prefix.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TypeaheadIndexBenchmark {
+
+    private static final String[] FIRST = {"anna", "annabel", "anne", "bob", "bobby", "carla", "carlos", "dana",
+            "daniel", "elena", "emil", "fatima", "george", "hannah", "ivan", "joanna", "john", "karin", "liam", "maria"};
+    private static final String[] LAST = {"anderson", "baker", "brown", "clark", "davis", "evans", "garcia", "hall",
+            "jones", "king", "lee", "lopez", "miller", "nguyen", "patel", "shirley", "smith", "taylor", "walker", "young"};
+
+    @Param({"100000", "1000000"})
+    public int customers;
+
+    @Param({"a", "joann", "maria sh", "john.smith1"})
+    public String query;
+
+    private InMemoryTypeaheadIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new InMemoryTypeaheadIndex();
+        Random random = new Random(42);
+        index.load(sink -> {
+            for (long id = 1; id <= customers; id++) {
+                String first = FIRST[random.nextInt(FIRST.length)];
+                String last = LAST[random.nextInt(LAST.length)];
+                sink.accept(id, 0, capitalize(first) + " " + capitalize(last), first + "." + last + id + "@example.com");
+            }
+        });
+    }
+
+    @Benchmark
+    public List<CustomerResponse> lookup() {
+        return index.lookup(query, 10);
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
@@ -0,0 +1,70 @@
+package com.hcl.customerservice.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency samples and outcome counters for one scenario operation.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final ConcurrentLinkedQueue<Long> latenciesNanos = new ConcurrentLinkedQueue<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong clientErrors = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    /** A status of -1 means the request failed before a response arrived. */
+    void record(long latencyNanos, int status) {
+        requests.incrementAndGet();
+        latenciesNanos.add(latencyNanos);
+        if (status < 0 || status >= 500) {
+            errors.incrementAndGet();
+        } else if (status >= 400) {
+            clientErrors.incrementAndGet();
+        }
+    }
+
+    Summary summarize(double seconds) {
+        long[] sorted = latenciesNanos.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        long count = requests.get();
+        return new Summary(
+                name,
+                count,
+                seconds > 0 ? count / seconds : 0,
+                percentileMillis(sorted, 0.50),
+                percentileMillis(sorted, 0.95),
+                percentileMillis(sorted, 0.99),
+                sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0,
+                clientErrors.get(),
+                errors.get()
+        );
+    }
+
+    // Nearest-rank percentile.
+    private static double percentileMillis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(quantile * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    record Summary(String endpoint, long requests, double throughput, double p50Ms, double p95Ms,
+                   double p99Ms, double maxMs, long clientErrors, long errors) {
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+    }
+}
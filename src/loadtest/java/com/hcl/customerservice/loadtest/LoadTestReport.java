@@ -0,0 +1,72 @@
+package com.hcl.customerservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-endpoint latency/throughput summary checked against the SLO thresholds.
+ */
+class LoadTestReport {
+
+    private final LoadTestSettings settings;
+    private final List<EndpointStats.Summary> endpoints;
+    private final List<String> violations = new ArrayList<>();
+
+    LoadTestReport(LoadTestSettings settings, List<EndpointStats.Summary> endpoints) {
+        this.settings = settings;
+        this.endpoints = endpoints;
+        for (EndpointStats.Summary summary : endpoints) {
+            if (summary.p95Ms() > settings.p95ThresholdMs()) {
+                violations.add(String.format("%s p95 %.1f ms > %d ms",
+                        summary.endpoint(), summary.p95Ms(), settings.p95ThresholdMs()));
+            }
+            if (summary.errorRate() > settings.maxErrorRate()) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%",
+                        summary.endpoint(), summary.errorRate() * 100, settings.maxErrorRate() * 100));
+            }
+        }
+    }
+
+    boolean passed() {
+        return violations.isEmpty();
+    }
+
+    void print(PrintStream out) {
+        out.printf("%nLoad test: %d req/s offered for %ds (after %ds warm-up)%n",
+                settings.rate(), settings.duration().toSeconds(), settings.warmup().toSeconds());
+        out.printf("%-26s %8s %9s %9s %9s %9s %9s %6s %6s%n",
+                "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "4xx", "err");
+        for (EndpointStats.Summary s : endpoints) {
+            out.printf("%-26s %8d %9.1f %9.1f %9.1f %9.1f %9.1f %6d %6d%n",
+                    s.endpoint(), s.requests(), s.throughput(), s.p50Ms(), s.p95Ms(), s.p99Ms(), s.maxMs(),
+                    s.clientErrors(), s.errors());
+        }
+        if (passed()) {
+            out.printf("SLO met: every endpoint p95 <= %d ms%n", settings.p95ThresholdMs());
+        } else {
+            out.println("SLO violated:");
+            violations.forEach(v -> out.println("  " + v));
+        }
+    }
+
+    void write(ObjectMapper objectMapper) throws IOException {
+        if (settings.report().getParent() != null) {
+            Files.createDirectories(settings.report().getParent());
+        }
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT).writeValue(settings.report().toFile(),
+                new Document(Instant.now(), settings.rate(), settings.duration().toSeconds(),
+                        settings.p95ThresholdMs(), settings.maxErrorRate(), passed(), violations, endpoints));
+    }
+
+    record Document(Instant finishedAt, int offeredRate, long durationSeconds, long p95ThresholdMs,
+                    double maxErrorRate, boolean passed, List<String> violations,
+                    List<EndpointStats.Summary> endpoints) {
+    }
+}
@@ -0,0 +1,170 @@
+package com.hcl.customerservice.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hcl.customerservice.CustomerServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Boots the application against an embedded PostgreSQL (unless told to use an existing database or
+ * instance), logs in, seeds customers and drives the {@link Scenario} mix at a fixed arrival rate.
+ * Exits non-zero when an endpoint breaks the p95 or error-rate budget.
+ *
+ * <p>Latency is measured from each request's scheduled send time, not the time it actually left,
+ * so a stalled server shows up as queueing delay instead of silently lowering the offered rate.
+ */
+public class LoadTestRunner {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    // How long in-flight requests may take to finish once the arrival schedule has ended.
+    private static final long DRAIN_TIMEOUT_SECONDS = 30;
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        EmbeddedPostgres postgres = null;
+        ConfigurableApplicationContext context = null;
+        boolean passed;
+        try {
+            String baseUrl = settings.baseUrl();
+            if (baseUrl.isBlank()) {
+                String jdbcUrl = settings.jdbcUrl();
+                if (jdbcUrl.isBlank()) {
+                    postgres = EmbeddedPostgres.start();
+                    jdbcUrl = postgres.getJdbcUrl("postgres", "postgres");
+                }
+                context = startApplication(settings, jdbcUrl);
+                baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            }
+            passed = run(settings, baseUrl);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+            if (postgres != null) {
+                postgres.close();
+            }
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    private static ConfigurableApplicationContext startApplication(LoadTestSettings settings, String jdbcUrl) {
+        return new SpringApplicationBuilder(CustomerServiceApplication.class).run(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + settings.jdbcUsername(),
+                "--spring.datasource.password=" + settings.jdbcPassword(),
+                "--spring.jpa.show-sql=false",
+                "--logging.level.root=WARN");
+    }
+
+    private static boolean run(LoadTestSettings settings, String baseUrl) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Scenario scenario = new Scenario(baseUrl, login(client, objectMapper, settings, baseUrl), objectMapper);
+        for (int remaining = settings.seedCustomers(); remaining > 0; remaining -= SEED_BATCH_SIZE) {
+            HttpRequest seed = scenario.seedRequest(Math.min(remaining, SEED_BATCH_SIZE));
+            scenario.onSeeded(client.send(seed, HttpResponse.BodyHandlers.ofString()));
+        }
+
+        Map<Scenario.Operation, EndpointStats> stats = new EnumMap<>(Scenario.Operation.class);
+        for (Scenario.Operation operation : Scenario.Operation.values()) {
+            stats.put(operation, new EndpointStats(operation.label));
+        }
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / settings.rate();
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+        ConcurrentLinkedQueue<InFlight> inFlight = new ConcurrentLinkedQueue<>();
+
+        for (long i = 0; ; i++) {
+            long scheduled = start + i * intervalNanos;
+            if (scheduled >= end) {
+                break;
+            }
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenario.Operation operation = scenario.next();
+            HttpRequest request = scenario.request(operation);
+            if (request == null) {
+                continue;
+            }
+            boolean measured = scheduled >= measureFrom;
+            CompletableFuture<HttpResponse<String>> sent = client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+            CompletableFuture<?> recorded = sent.whenComplete((response, failure) -> {
+                long latency = System.nanoTime() - scheduled;
+                if (response != null) {
+                    scenario.onResponse(operation, response);
+                }
+                if (measured) {
+                    stats.get(operation).record(latency, response != null ? response.statusCode() : -1);
+                }
+            });
+            inFlight.add(new InFlight(sent, recorded));
+            inFlight.removeIf(f -> f.recorded().isDone());
+        }
+        try {
+            CompletableFuture.allOf(inFlight.stream().map(InFlight::recorded).toArray(CompletableFuture[]::new))
+                    .exceptionally(ex -> null)
+                    .get(DRAIN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException ex) {
+            // A stalled server must not cost the report: cancelling completes each outstanding request
+            // with a failure, which the callback above records as an error (status -1).
+            long timedOut = inFlight.stream().filter(f -> f.sent().cancel(true)).count();
+            System.out.printf("%d requests still outstanding after %ds were cancelled and counted as errors%n",
+                    timedOut, DRAIN_TIMEOUT_SECONDS);
+        }
+
+        double seconds = settings.duration().toNanos() / 1e9;
+        List<EndpointStats.Summary> summaries = new ArrayList<>();
+        stats.values().forEach(s -> summaries.add(s.summarize(seconds)));
+        LoadTestReport report = new LoadTestReport(settings, summaries);
+        report.print(System.out);
+        report.write(objectMapper);
+        System.out.println("Report written to " + settings.report().toAbsolutePath());
+        return report.passed();
+    }
+
+    private record InFlight(CompletableFuture<?> sent, CompletableFuture<?> recorded) {
+    }
+
+    private static String login(HttpClient client, ObjectMapper objectMapper, LoadTestSettings settings,
+                                String baseUrl) throws Exception {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of(
+                "username", settings.username(),
+                "password", settings.password()));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login failed: HTTP " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body()).path("token").asText();
+    }
+}
@@ -0,0 +1,52 @@
+package com.hcl.customerservice.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load-test knobs, read from {@code -Dloadtest.*} system properties.
+ *
+ * @param baseUrl         target an already running instance; when blank the application is booted in-process
+ * @param jdbcUrl         existing PostgreSQL to boot against; when blank an embedded PostgreSQL is started
+ * @param rate            requests per second offered, independent of how fast responses come back
+ * @param warmup          leading period whose samples are discarded
+ * @param duration        measured period
+ * @param seedCustomers   customers created before the run so reads have something to hit
+ * @param p95ThresholdMs  per-endpoint p95 budget (the HighLatency alert in monitoring/alert-rules.yml)
+ * @param maxErrorRate    5xx/transport-error budget (the HighErrorRate alert)
+ * @param report          JSON report location
+ */
+record LoadTestSettings(
+        String baseUrl,
+        String jdbcUrl,
+        String jdbcUsername,
+        String jdbcPassword,
+        String username,
+        String password,
+        int rate,
+        Duration warmup,
+        Duration duration,
+        int seedCustomers,
+        long p95ThresholdMs,
+        double maxErrorRate,
+        Path report
+) {
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                System.getProperty("loadtest.base-url", ""),
+                System.getProperty("loadtest.jdbc-url", ""),
+                System.getProperty("loadtest.jdbc-username", "postgres"),
+                System.getProperty("loadtest.jdbc-password", "postgres"),
+                System.getProperty("loadtest.username", "admin"),
+                System.getProperty("loadtest.password", "admin123"),
+                Integer.getInteger("loadtest.rate", 100),
+                Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 15L)),
+                Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 60L)),
+                Integer.getInteger("loadtest.seed-customers", 2000),
+                Long.getLong("loadtest.p95-threshold-ms", 500L),
+                Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.05")),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"))
+        );
+    }
+}
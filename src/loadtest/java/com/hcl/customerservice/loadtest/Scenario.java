@@ -0,0 +1,181 @@
+package com.hcl.customerservice.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Weighted read/write mix against CustomerController. Ids created by the seed step and by
+ * {@code create} are pooled so reads, updates and deletes hit existing rows.
+ */
+class Scenario {
+
+    enum Operation {
+        GET_BY_ID("GET /customers/{id}", 45),
+        LIST_PAGE("GET /customers?page", 15),
+        CURSOR_PAGE("GET /customers/cursor", 10),
+        CREATE("POST /customers", 15),
+        UPDATE("PUT /customers/{id}", 10),
+        DELETE("DELETE /customers/{id}", 5);
+
+        final String label;
+        final int weight;
+
+        Operation(String label, int weight) {
+            this.label = label;
+            this.weight = weight;
+        }
+    }
+
+    private static final int TOTAL_WEIGHT = weightSum();
+    private static final String CUSTOMERS = "/api/v1/customers";
+
+    private final String baseUrl;
+    private final String authorization;
+    private final ObjectMapper objectMapper;
+    private final IdPool ids = new IdPool();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+
+    Scenario(String baseUrl, String token, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.authorization = "Bearer " + token;
+        this.objectMapper = objectMapper;
+    }
+
+    Operation next() {
+        int roll = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.GET_BY_ID;
+    }
+
+    /** Returns null when the operation needs an existing id and the pool is empty. */
+    HttpRequest request(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (operation) {
+            case GET_BY_ID: {
+                Long id = ids.pick();
+                return id == null ? null : builder(CUSTOMERS + "/" + id).GET().build();
+            }
+            case LIST_PAGE:
+                return builder(CUSTOMERS + "?page=" + random.nextInt(10) + "&size=20&sort=name").GET().build();
+            case CURSOR_PAGE:
+                return builder(CUSTOMERS + "/cursor?size=20&sort=NAME").GET().build();
+            case CREATE:
+                return json(builder(CUSTOMERS), "POST", newCustomer());
+            case UPDATE: {
+                Long id = ids.pick();
+                return id == null ? null : json(builder(CUSTOMERS + "/" + id), "PUT", newCustomer());
+            }
+            case DELETE: {
+                Long id = ids.take();
+                return id == null ? null : builder(CUSTOMERS + "/" + id).DELETE().build();
+            }
+            default:
+                throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    /** Feeds ids from successful creates back into the pool. */
+    void onResponse(Operation operation, HttpResponse<String> response) {
+        if (operation == Operation.CREATE && response.statusCode() == 201) {
+            try {
+                ids.add(objectMapper.readTree(response.body()).path("id").asLong());
+            } catch (Exception ignored) {
+                // a malformed body is already visible in the status counts
+            }
+        }
+    }
+
+    HttpRequest seedRequest(int count) {
+        List<Customer> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(newCustomer());
+        }
+        return json(builder(CUSTOMERS + "/batch"), "POST", batch);
+    }
+
+    void onSeeded(HttpResponse<String> response) throws Exception {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: HTTP " + response.statusCode() + " " + response.body());
+        }
+        for (JsonNode result : objectMapper.readTree(response.body()).path("results")) {
+            if (result.hasNonNull("id")) {
+                ids.add(result.get("id").asLong());
+            }
+        }
+    }
+
+    int pooledIds() {
+        return ids.size();
+    }
+
+    private Customer newCustomer() {
+        long n = sequence.incrementAndGet();
+        return new Customer("Load Test " + n, "lt-" + runId + "-" + n + "@example.com");
+    }
+
+    private HttpRequest.Builder builder(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).header("Authorization", authorization);
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String method, Object body) {
+        try {
+            return builder.header("Content-Type", "application/json")
+                    .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                    .build();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static int weightSum() {
+        int sum = 0;
+        for (Operation operation : Operation.values()) {
+            sum += operation.weight;
+        }
+        return sum;
+    }
+
+    record Customer(String name, String email) {
+    }
+
+    /** Random pick with O(1) removal (swap with last). */
+    private static final class IdPool {
+
+        private final List<Long> ids = new ArrayList<>();
+
+        synchronized void add(long id) {
+            ids.add(id);
+        }
+
+        synchronized Long pick() {
+            return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        }
+
+        synchronized Long take() {
+            if (ids.isEmpty()) {
+                return null;
+            }
+            int index = ThreadLocalRandom.current().nextInt(ids.size());
+            Long last = ids.remove(ids.size() - 1);
+            return index == ids.size() ? last : ids.set(index, last);
+        }
+
+        synchronized int size() {
+            return ids.size();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.hcl.customerservice.cache;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+
+import java.util.function.Function;
+
+/**
+ * Read-through cache in front of {@code CustomerRepository}. Holds immutable-by-convention
+ * {@link CustomerResponse} snapshots by id. It is never consulted for email uniqueness: a copy can
+ * be stale, so only {@code uk_customer_email} decides whether an email is taken.
+ */
+public interface CustomerCache {
+
+    /**
+     * Returns the cached customer or computes it with {@code loader}. Exceptions thrown by the
+     * loader (e.g. not found) propagate and nothing is cached.
+     */
+    CustomerResponse getById(Long id, Function<Long, CustomerResponse> loader);
+
+    /** The cached customer, or {@code null}; never loads. */
+    CustomerResponse getIfPresent(Long id);
+
+    void put(CustomerResponse customer);
+
+    void evict(Long id);
+
+    /**
+     * Drops the entry for {@code id} unless it already holds {@code version} or a newer one: a
+     * late notification about an older write must not evict a fresher copy. Until the entry would
+     * have expired, copies older than {@code version} are not cached either: they were read from a
+     * replica that has not replayed the write yet.
+     */
+    void invalidate(long id, long version);
+
+    void clear();
+
+    /**
+     * Empties the cache and bypasses it (every read goes to the loader, nothing is stored) until
+     * {@link #resume()}. Used while invalidations from other instances may be getting lost.
+     */
+    void suspend();
+
+    /** Empties the cache again and resumes caching. */
+    void resume();
+
+    CustomerCacheStats stats();
+}
@@ -0,0 +1,11 @@
+package com.hcl.customerservice.cache;
+
+public record CustomerCacheStats(long hitCount, long missCount, long evictionCount, long size) {
+
+    public static final CustomerCacheStats EMPTY = new CustomerCacheStats(0, 0, 0, 0);
+
+    public double hitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+}
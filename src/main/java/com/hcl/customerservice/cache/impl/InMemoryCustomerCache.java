@@ -0,0 +1,123 @@
+package com.hcl.customerservice.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.cache.CustomerCacheStats;
+import com.hcl.customerservice.dto.CustomerResponse;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Caffeine-backed, size- and TTL-bounded {@link CustomerCache} local to this JVM.
+ */
+public class InMemoryCustomerCache implements CustomerCache {
+
+    private final Cache<Long, CustomerResponse> byId;
+    // Newest version announced by invalidate() per id; older copies are not cached.
+    private final Cache<Long, Long> announced;
+
+    private volatile boolean suspended;
+
+    public InMemoryCustomerCache(long maxSize, Duration ttl) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.announced = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Loads outside the cache: Caffeine's get(key, loader) runs the loader inside
+    // ConcurrentHashMap.compute, holding a bin lock for the whole query, which also pins a virtual
+    // thread to its carrier. Concurrent misses on one id may each load; put() keeps the newer copy.
+    @Override
+    public CustomerResponse getById(Long id, Function<Long, CustomerResponse> loader) {
+        if (suspended) {
+            return loader.apply(id);
+        }
+        CustomerResponse cached = byId.getIfPresent(id);
+        if (cached != null) {
+            return cached;
+        }
+        CustomerResponse loaded = loader.apply(id);
+        if (loaded != null) {
+            put(loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public CustomerResponse getIfPresent(Long id) {
+        return suspended ? null : byId.getIfPresent(id);
+    }
+
+    @Override
+    public void put(CustomerResponse customer) {
+        if (suspended) {
+            return;
+        }
+        // The staleness check runs inside the per-key compute so it is ordered against invalidate().
+        byId.asMap().compute(customer.getId(), (key, current) -> {
+            if (isStale(customer)) {
+                return current;
+            }
+            return current != null && isNewer(current, customer) ? current : customer;
+        });
+    }
+
+    @Override
+    public void evict(Long id) {
+        if (id != null) {
+            byId.invalidate(id);
+        }
+    }
+
+    @Override
+    public void invalidate(long id, long version) {
+        announced.asMap().merge(id, version, Math::max);
+        // After the floor is raised, so a put() that has not stored its copy yet will see it.
+        byId.asMap().computeIfPresent(id, (key, cached) ->
+                cached.getVersion() != null && cached.getVersion() >= version ? cached : null);
+    }
+
+    @Override
+    public void clear() {
+        byId.invalidateAll();
+    }
+
+    private static boolean isNewer(CustomerResponse current, CustomerResponse candidate) {
+        return current.getVersion() != null
+                && (candidate.getVersion() == null || current.getVersion() > candidate.getVersion());
+    }
+
+    private boolean isStale(CustomerResponse customer) {
+        Long floor = announced.getIfPresent(customer.getId());
+        return floor != null && (customer.getVersion() == null || customer.getVersion() < floor);
+    }
+
+    // Flag first, then clear: a load that raced past the flag may still store an entry, but it is
+    // never read while suspended and resume() clears it.
+    @Override
+    public void suspend() {
+        suspended = true;
+        clear();
+    }
+
+    @Override
+    public void resume() {
+        clear();
+        suspended = false;
+    }
+
+    @Override
+    public CustomerCacheStats stats() {
+        CacheStats stats = byId.stats();
+        return new CustomerCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(), byId.estimatedSize());
+    }
+}
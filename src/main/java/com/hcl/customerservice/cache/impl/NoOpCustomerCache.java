@@ -0,0 +1,58 @@
+package com.hcl.customerservice.cache.impl;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.cache.CustomerCacheStats;
+import com.hcl.customerservice.dto.CustomerResponse;
+
+import java.util.function.Function;
+
+/**
+ * Pass-through implementation used when caching is disabled.
+ */
+public class NoOpCustomerCache implements CustomerCache {
+
+    @Override
+    public CustomerResponse getById(Long id, Function<Long, CustomerResponse> loader) {
+        return loader.apply(id);
+    }
+
+    @Override
+    public CustomerResponse getIfPresent(Long id) {
+        return null;
+    }
+
+    @Override
+    public void put(CustomerResponse customer) {
+        // nothing to do
+    }
+
+    @Override
+    public void evict(Long id) {
+        // nothing to do
+    }
+
+    @Override
+    public void invalidate(long id, long version) {
+        // nothing to do
+    }
+
+    @Override
+    public void clear() {
+        // nothing to do
+    }
+
+    @Override
+    public void suspend() {
+        // nothing to do
+    }
+
+    @Override
+    public void resume() {
+        // nothing to do
+    }
+
+    @Override
+    public CustomerCacheStats stats() {
+        return CustomerCacheStats.EMPTY;
+    }
+}
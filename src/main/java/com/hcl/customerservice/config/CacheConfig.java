@@ -0,0 +1,24 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.cache.impl.InMemoryCustomerCache;
+import com.hcl.customerservice.cache.impl.NoOpCustomerCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public CustomerCache customerCache(@Value("${customer.cache.enabled:true}") boolean enabled,
+                                       @Value("${customer.cache.max-size:50000}") long maxSize,
+                                       @Value("${customer.cache.ttl:10m}") Duration ttl) {
+        if (!enabled) {
+            return new NoOpCustomerCache();
+        }
+        return new InMemoryCustomerCache(maxSize, ttl);
+    }
+}
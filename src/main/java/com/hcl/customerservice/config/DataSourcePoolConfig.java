@@ -0,0 +1,53 @@
+package com.hcl.customerservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+
+/**
+ * Sizes the Hikari pool from the CPU count and the expected blocking ratio (time a request spends
+ * waiting on the database per unit of CPU time): {@code cores * (1 + blockingRatio)}, capped at
+ * {@code customer.datasource.pool.max-size} so a large node cannot exhaust the database's
+ * connection limit. Only active when {@code customer.datasource.pool.blocking-ratio} is set (the
+ * prod profile) and an explicit {@code spring.datasource.hikari.maximum-pool-size} always wins.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customer.datasource.pool.blocking-ratio")
+public class DataSourcePoolConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataSourcePoolConfig.class);
+
+    static final String MAXIMUM_POOL_SIZE = "spring.datasource.hikari.maximum-pool-size";
+
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && !environment.containsProperty(MAXIMUM_POOL_SIZE)) {
+                    int cores = environment.getProperty("customer.datasource.pool.cores", Integer.class,
+                            Runtime.getRuntime().availableProcessors());
+                    double blockingRatio = environment.getRequiredProperty("customer.datasource.pool.blocking-ratio", Double.class);
+                    int maxSize = environment.getProperty("customer.datasource.pool.max-size", Integer.class, 50);
+                    int size = poolSize(cores, blockingRatio, maxSize);
+                    dataSource.setMaximumPoolSize(size);
+                    logger.info("Hikari pool sized to {} connections ({} cores, blocking ratio {}, cap {})",
+                            size, cores, blockingRatio, maxSize);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static int poolSize(int cores, double blockingRatio, int maxSize) {
+        int size = (int) Math.ceil(cores * (1 + Math.max(0, blockingRatio)));
+        return Math.max(2, Math.min(size, maxSize));
+    }
+}
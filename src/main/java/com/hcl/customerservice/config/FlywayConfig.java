@@ -0,0 +1,24 @@
+package com.hcl.customerservice.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.util.Map;
+
+@Configuration
+@Profile("!reactive")
+public class FlywayConfig {
+
+    /**
+     * Flyway's default PostgreSQL lock is a transaction-scoped advisory lock held on its own
+     * connection for the whole run. CREATE INDEX CONCURRENTLY waits for every open transaction to
+     * finish, so it would wait on that lock forever; a session-level lock keeps no transaction open.
+     */
+    @Bean
+    public FlywayConfigurationCustomizer sessionLevelMigrationLock() {
+        return configuration -> configuration.configuration(
+                Map.of("flyway.postgresql.transactional.lock", "false"));
+    }
+}
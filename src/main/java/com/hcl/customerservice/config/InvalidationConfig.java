@@ -0,0 +1,112 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.invalidation.CustomerChangeHandler;
+import com.hcl.customerservice.invalidation.CustomerChangePublisher;
+import com.hcl.customerservice.invalidation.impl.NoOpCustomerChangePublisher;
+import com.hcl.customerservice.invalidation.impl.PgNotifyChangeListener;
+import com.hcl.customerservice.invalidation.impl.PgNotifyCustomerChangePublisher;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import com.hcl.customerservice.typeahead.TypeaheadIndexLoader;
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Cross-instance invalidation of the customer cache and typeahead index over PostgreSQL
+ * LISTEN/NOTIFY. Off by default (one instance needs none); the prod profile turns it on.
+ */
+@Configuration
+public class InvalidationConfig {
+
+    // Lets an instance recognise, and skip, the notifications it sent itself.
+    private final String node = UUID.randomUUID().toString();
+
+    @Bean
+    public CustomerChangePublisher customerChangePublisher(@Value("${customer.invalidation.enabled:false}") boolean enabled,
+                                                           @Value("${customer.invalidation.channel:customer_changes}") String channel,
+                                                           ObjectProvider<DataSource> dataSource) {
+        if (!enabled) {
+            return new NoOpCustomerChangePublisher();
+        }
+        DataSource jdbc = dataSource.getIfAvailable();
+        if (jdbc == null) {
+            // The reactive profile sets it to false: its writes go through R2DBC and publish nothing.
+            throw new IllegalStateException("customer.invalidation.enabled needs JDBC, which the reactive profile disables");
+        }
+        return new PgNotifyCustomerChangePublisher(jdbc, channel, node);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    @Profile("!reactive")
+    @ConditionalOnProperty(name = "customer.invalidation.enabled", havingValue = "true")
+    public ExecutorService typeaheadReloadExecutor() {
+        // One thread: reloads run one after another.
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "typeahead-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean
+    @Profile("!reactive")
+    @ConditionalOnProperty(name = "customer.invalidation.enabled", havingValue = "true")
+    public PgNotifyChangeListener customerChangeListener(DataSource dataSource,
+                                                         ObjectProvider<HikariDataSource> primaryPool,
+                                                         CustomerCache cache,
+                                                         CustomerTypeaheadIndex typeahead,
+                                                         ObjectProvider<TypeaheadIndexLoader> typeaheadLoader,
+                                                         ExecutorService typeaheadReloadExecutor,
+                                                         @Value("${customer.invalidation.channel:customer_changes}") String channel,
+                                                         @Value("${customer.invalidation.heartbeat:5s}") Duration heartbeat,
+                                                         @Value("${customer.invalidation.max-backoff:30s}") Duration maxBackoff) {
+        TypeaheadIndexLoader loader = typeaheadLoader.getIfAvailable();
+        CustomerChangeHandler handler = loader == null
+                ? new CustomerChangeHandler(cache, typeahead, null, null, typeaheadReloadExecutor)
+                : new CustomerChangeHandler(cache, typeahead, new JdbcTemplate(dataSource), loader::load, typeaheadReloadExecutor);
+        HikariDataSource hikari = primaryPool.getIfUnique();
+        if (hikari == null) {
+            // The pool may sit behind a wrapper bean (request profiling wraps it).
+            hikari = DataSourceUnwrapper.unwrap(dataSource, HikariConfigMXBean.class, HikariDataSource.class);
+        }
+        return new PgNotifyChangeListener(listenerConnections(dataSource, hikari),
+                channel, node, handler, heartbeat, maxBackoff);
+    }
+
+    // LISTEN pins its session for the life of the process, so it gets a connection of its own
+    // instead of one held out of the pool, where leak detection and max-lifetime would fight it.
+    // Notifications only exist on the primary, so it copies the primary pool's settings, also when
+    // the DataSource routes reads to replicas.
+    private static PgNotifyChangeListener.ConnectionFactory listenerConnections(DataSource dataSource, HikariDataSource hikari) {
+        if (hikari != null && hikari.getJdbcUrl() != null) {
+            String url = hikari.getJdbcUrl();
+            Properties properties = new Properties();
+            properties.putAll(hikari.getDataSourceProperties());
+            if (hikari.getUsername() != null) {
+                properties.setProperty("user", hikari.getUsername());
+            }
+            if (hikari.getPassword() != null) {
+                properties.setProperty("password", hikari.getPassword());
+            }
+            properties.setProperty("ApplicationName", "customer-service-listener");
+            return () -> DriverManager.getConnection(url, properties);
+        }
+        return dataSource::getConnection;
+    }
+}
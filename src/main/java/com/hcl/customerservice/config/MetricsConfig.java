@@ -0,0 +1,119 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.datasource.ReadWriteRoutingDataSource;
+import com.hcl.customerservice.datasource.ReplicaSet;
+import com.hcl.customerservice.invalidation.impl.PgNotifyChangeListener;
+import com.hcl.customerservice.security.CachingPasswordEncoder;
+import com.hcl.customerservice.security.VerifiedTokenCache;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Application-level meters. HTTP, Hikari pool and repository timers come from Spring Boot's
+ * actuator auto-configuration; see the management.* block in application.yml.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder customerCacheMetrics(CustomerCache cache) {
+        return registry -> {
+            Gauge.builder("customer.cache.size", cache, c -> c.stats().size())
+                    .description("Entries in the customer cache")
+                    .register(registry);
+            FunctionCounter.builder("customer.cache.requests", cache, c -> c.stats().hitCount())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("customer.cache.requests", cache, c -> c.stats().missCount())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("customer.cache.evictions", cache, c -> c.stats().evictionCount())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder typeaheadMetrics(CustomerTypeaheadIndex index) {
+        return registry -> {
+            Gauge.builder("customer.typeahead.size", index, CustomerTypeaheadIndex::size)
+                    .description("Customers held in the typeahead index")
+                    .register(registry);
+            Gauge.builder("customer.typeahead.ready", index, i -> i.isReady() ? 1 : 0)
+                    .description("1 once the typeahead index is loaded; 0 while lookups go to the database")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder invalidationMetrics(ObjectProvider<PgNotifyChangeListener> listener) {
+        return registry -> listener.ifAvailable(l -> Gauge.builder("customer.invalidation.connected", l, c -> c.isConnected() ? 1 : 0)
+                .description("1 while this instance receives other instances' customer changes; 0 while its caches fall back")
+                .register(registry));
+    }
+
+    @Bean
+    public MeterBinder readRoutingMetrics(ObjectProvider<ReadWriteRoutingDataSource> routing,
+                                          ObjectProvider<ReplicaSet> replicas) {
+        return registry -> {
+            routing.ifAvailable(r -> {
+                for (ReadWriteRoutingDataSource.Route route : ReadWriteRoutingDataSource.Route.values()) {
+                    FunctionCounter.builder("customer.datasource.routed", r, ds -> ds.routed(route))
+                            .description("Connections handed out, by where they went and why")
+                            .tag("route", route.name().toLowerCase())
+                            .register(registry);
+                }
+            });
+            replicas.ifAvailable(set -> set.replicas().forEach(replica -> {
+                // Boot only instruments DataSource beans; the replica pools get the same hikaricp.* meters.
+                if (replica.pool().getMetricsTrackerFactory() == null) {
+                    replica.pool().setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+                }
+                Gauge.builder("customer.datasource.replica.lag", replica, ReplicaSet.Replica::lagSeconds)
+                        .description("Replication lag found by the last probe; NaN if it failed")
+                        .baseUnit("seconds")
+                        .tag("pool", replica.name())
+                        .register(registry);
+                Gauge.builder("customer.datasource.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                        .description("1 while the replica serves reads; 0 while it lags or is unreachable")
+                        .tag("pool", replica.name())
+                        .register(registry);
+            }));
+        };
+    }
+
+    @Bean
+    public MeterBinder tokenCacheMetrics(VerifiedTokenCache tokenCache) {
+        return registry -> Gauge.builder("jwt.cache.size", tokenCache, VerifiedTokenCache::size)
+                .description("Verified tokens held in the token cache")
+                .register(registry);
+    }
+
+    @Bean
+    public MeterBinder loginMetrics(PasswordEncoder passwordEncoder, ExecutorService passwordHashingExecutor) {
+        return registry -> {
+            if (passwordEncoder instanceof CachingPasswordEncoder encoder) {
+                Gauge.builder("login.verification.cache.size", encoder, CachingPasswordEncoder::cachedVerifications)
+                        .description("Recent successful password verifications held in memory")
+                        .register(registry);
+            }
+            if (passwordHashingExecutor instanceof ThreadPoolExecutor executor) {
+                Gauge.builder("login.hashing.queued", executor, e -> e.getQueue().size())
+                        .description("Password hashing tasks waiting for a thread")
+                        .register(registry);
+                FunctionCounter.builder("login.hashing.completed", executor, ThreadPoolExecutor::getCompletedTaskCount)
+                        .register(registry);
+            }
+        };
+    }
+}
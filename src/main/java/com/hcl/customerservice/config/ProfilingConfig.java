@@ -0,0 +1,71 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.profiling.EndpointProfileRegistry;
+import com.hcl.customerservice.profiling.ProfilingDataSource;
+import com.hcl.customerservice.profiling.ProfilingSessionEventListener;
+import com.hcl.customerservice.profiling.RequestProfileEndpoint;
+import com.hcl.customerservice.profiling.RequestProfilingFilter;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Opt-in request profiling (customer.profiling.enabled=true). Every request gets X-Query-Count,
+ * X-Allocated-Bytes and Server-Timing headers, and per-endpoint averages are served from
+ * /actuator/requestprofiles. Off by default: the DataSource wrapper, the Hibernate listener and the
+ * filter are only registered when enabled.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "customer.profiling.enabled", havingValue = "true")
+public class ProfilingConfig {
+
+    private static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    // Wraps the DataSource the application uses (Boot's pool, or the routing proxy when replicas are
+    // configured). The pools behind it stay unwrapped, so a statement is counted once.
+    @Bean
+    public static BeanPostProcessor profilingDataSourceWrapper() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && APPLICATION_DATA_SOURCE.equals(beanName)
+                        ? new ProfilingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer profilingSessionEvents() {
+        return properties -> properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                ProfilingSessionEventListener.class.getName());
+    }
+
+    @Bean
+    public EndpointProfileRegistry endpointProfileRegistry() {
+        return new EndpointProfileRegistry();
+    }
+
+    // Outermost, so security and error handling are inside the measured span.
+    @Bean
+    public FilterRegistrationBean<RequestProfilingFilter> requestProfilingFilter(EndpointProfileRegistry registry) {
+        FilterRegistrationBean<RequestProfilingFilter> registration =
+                new FilterRegistrationBean<>(new RequestProfilingFilter(registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public RequestProfileEndpoint requestProfileEndpoint(EndpointProfileRegistry registry) {
+        return new RequestProfileEndpoint(registry);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.datasource.ReadWriteRoutingDataSource;
+import com.hcl.customerservice.datasource.RecentWriters;
+import com.hcl.customerservice.datasource.ReplicaSet;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read-only transactions on streaming replicas (see {@link ReadWriteRoutingDataSource}). Only active
+ * when {@code customer.datasource.replicas.urls} lists at least one replica. Replaces Spring Boot's
+ * DataSource with the same primary pool, built from {@code spring.datasource.*}, behind the router;
+ * replica pools copy its settings and credentials.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnExpression("!'${customer.datasource.replicas.urls:}'.isBlank()")
+public class ReadReplicaConfig {
+
+    private static final long MAX_TRACKED_WRITERS = 100_000;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaSet readReplicas(HikariDataSource primaryDataSource,
+                                   @Value("${customer.datasource.replicas.urls}") List<String> urls,
+                                   @Value("${customer.datasource.replicas.max-lag:1s}") Duration maxLag,
+                                   @Value("${customer.datasource.replicas.lag-check-interval:1s}") Duration checkInterval) {
+        return new ReplicaSet(primaryDataSource, urls, maxLag, checkInterval);
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 ReplicaSet readReplicas,
+                                                                 @Value("${customer.datasource.replicas.sticky-window:5s}") Duration stickyWindow) {
+        return new ReadWriteRoutingDataSource(primaryDataSource, readReplicas,
+                new RecentWriters(stickyWindow, MAX_TRACKED_WRITERS), ReadReplicaConfig::currentUser);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,31 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.repository.RefreshSessionRepository;
+import com.hcl.customerservice.security.InMemoryRefreshTokenStore;
+import com.hcl.customerservice.security.JpaRefreshTokenStore;
+import com.hcl.customerservice.security.RefreshTokenStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class TokenStoreConfig {
+
+    @Bean
+    public RefreshTokenStore refreshTokenStore(@Value("${jwt.refresh.store:memory}") String store,
+                                               @Value("${jwt.refresh.sync-interval:5s}") Duration syncInterval,
+                                               @Value("${jwt.refresh.purge-interval:1h}") Duration purgeInterval,
+                                               ObjectProvider<RefreshSessionRepository> repository) {
+        if (!"database".equals(store)) {
+            return new InMemoryRefreshTokenStore();
+        }
+        RefreshSessionRepository sessions = repository.getIfAvailable();
+        if (sessions == null) {
+            throw new IllegalStateException("jwt.refresh.store=database needs JPA, which the reactive profile disables");
+        }
+        return new JpaRefreshTokenStore(sessions, syncInterval, purgeInterval);
+    }
+}
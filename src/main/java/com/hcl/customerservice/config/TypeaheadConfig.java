@@ -0,0 +1,36 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import com.hcl.customerservice.typeahead.TypeaheadIndexLoader;
+import com.hcl.customerservice.typeahead.impl.InMemoryTypeaheadIndex;
+import com.hcl.customerservice.typeahead.impl.NoOpTypeaheadIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class TypeaheadConfig {
+
+    @Bean
+    public CustomerTypeaheadIndex customerTypeaheadIndex(@Value("${customer.typeahead.enabled:false}") boolean enabled) {
+        if (!enabled) {
+            return new NoOpTypeaheadIndex();
+        }
+        return new InMemoryTypeaheadIndex();
+    }
+
+    @Bean
+    @Profile("!reactive")
+    @ConditionalOnProperty(name = "customer.typeahead.enabled", havingValue = "true")
+    public TypeaheadIndexLoader typeaheadIndexLoader(CustomerTypeaheadIndex index,
+                                                     DataSource dataSource,
+                                                     PlatformTransactionManager transactionManager,
+                                                     @Value("${customer.typeahead.fetch-size:5000}") int fetchSize) {
+        return new TypeaheadIndexLoader(index, dataSource, transactionManager, fetchSize);
+    }
+}
@@ -0,0 +1,80 @@
+package com.hcl.customerservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Condition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual-thread mode (customer.virtual-threads.enabled=true, Java 21+; build with -Pjava21).
+ * Tomcat hands every request to a fresh virtual thread, so the JWT filter, service and JDBC calls
+ * all park instead of holding a platform thread while they block. Concurrency against the database
+ * is then bounded by the Hikari pool rather than by Tomcat's worker count.
+ *
+ * The executor is obtained reflectively so the default Java 17 build still compiles; on an older
+ * runtime the flag is ignored with a warning.
+ */
+@Configuration
+@ConditionalOnProperty(name = "customer.virtual-threads.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            ExecutorService executor = newVirtualThreadPerTaskExecutor();
+            if (executor != null) {
+                protocolHandler.setExecutor(executor);
+                logger.info("Tomcat request handling runs on virtual threads");
+            }
+        };
+    }
+
+    // Replaces Boot's pooled applicationTaskExecutor so MVC async and @Async work is virtual too.
+    // Without virtual threads Boot's own bounded executor stays in place.
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    @Conditional(VirtualThreadsAvailable.class)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadPerTaskExecutor());
+    }
+
+    static class VirtualThreadsAvailable implements Condition {
+
+        @Override
+        public boolean matches(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            try {
+                Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return true;
+            } catch (NoSuchMethodException ex) {
+                return false;
+            }
+        }
+    }
+
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (Runtime.version().feature() < 21) {
+            logger.warn("customer.virtual-threads.enabled is set but the runtime is Java {}; using platform threads",
+                    Runtime.version().feature());
+            return null;
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            logger.warn("Virtual threads unavailable; using platform threads", ex);
+            return null;
+        }
+    }
+}
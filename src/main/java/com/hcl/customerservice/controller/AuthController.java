@@ -2,14 +2,22 @@ package com.hcl.customerservice.controller;
 
 import com.hcl.customerservice.dto.AuthenticationRequest;
 import com.hcl.customerservice.dto.AuthenticationResponse;
-import com.hcl.customerservice.security.JwtService;
+import com.hcl.customerservice.dto.RefreshTokenRequest;
+import com.hcl.customerservice.logging.LogMarkers;
+import com.hcl.customerservice.security.PasswordHashingBusyException;
+import com.hcl.customerservice.security.RefreshTokenService;
+import com.hcl.customerservice.security.TokenPair;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
@@ -17,6 +25,7 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/auth")
 @RequiredArgsConstructor
 public class AuthController {
@@ -25,25 +34,71 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
     private final UserDetailsService userDetailsService;
-    private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
 
     @Operation(summary = "Authenticate user and obtain JWT token", responses = {
             @ApiResponse(responseCode = "200", description = "Authentication successful"),
-            @ApiResponse(responseCode = "401", description = "Invalid credentials")
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent logins; retry after the Retry-After delay")
     })
     @PostMapping("/login")
     public ResponseEntity<AuthenticationResponse> login(@RequestBody AuthenticationRequest request) {
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
             );
         } catch (BadCredentialsException ex) {
-            logger.warn("Authentication failed for user {}", request.getUsername());
+            logger.warn(LogMarkers.EXPECTED, "Authentication failed for user {}", request.getUsername());
             return ResponseEntity.status(401).build();
+        } catch (PasswordHashingBusyException ex) {
+            logger.warn(LogMarkers.EXPECTED, "Login rejected, password hashing saturated");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
         }
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
-        String token = jwtService.generateToken(userDetails);
+        // The provider already loaded the user to check the password; only fall back to a lookup
+        // when it handed back something other than UserDetails.
+        UserDetails userDetails = authentication != null && authentication.getPrincipal() instanceof UserDetails principal
+                ? principal
+                : userDetailsService.loadUserByUsername(request.getUsername());
+        TokenPair tokens = refreshTokenService.issue(userDetails);
         logger.info("User {} authenticated successfully", request.getUsername());
-        return ResponseEntity.ok(new AuthenticationResponse(token));
+        return ResponseEntity.ok(response(tokens));
+    }
+
+    @Operation(summary = "Exchange a refresh token for a new access and refresh token", responses = {
+            @ApiResponse(responseCode = "200", description = "Tokens rotated; the presented refresh token is now spent"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired, revoked or already used")
+    })
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthenticationResponse> refresh(@RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(response(refreshTokenService.refresh(request.getRefreshToken())));
+        } catch (BadCredentialsException ex) {
+            logger.warn(LogMarkers.EXPECTED, "Refresh rejected: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    @Operation(summary = "End the session of a refresh token, including its access tokens", responses = {
+            @ApiResponse(responseCode = "204", description = "Session revoked"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid")
+    })
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody RefreshTokenRequest request) {
+        try {
+            refreshTokenService.revoke(request.getRefreshToken());
+        } catch (BadCredentialsException ex) {
+            logger.warn(LogMarkers.EXPECTED, "Logout rejected: {}", ex.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    static AuthenticationResponse response(TokenPair tokens) {
+        return AuthenticationResponse.builder()
+                .token(tokens.accessToken())
+                .refreshToken(tokens.refreshToken())
+                .expiresIn(tokens.accessTokenTtl().toSeconds())
+                .build();
     }
 }
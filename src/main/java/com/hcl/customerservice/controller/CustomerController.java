@@ -1,27 +1,46 @@
 package com.hcl.customerservice.controller;
 
+import com.hcl.customerservice.dto.BatchResponse;
+import com.hcl.customerservice.dto.CustomerBatchUpdateRequest;
 import com.hcl.customerservice.dto.CustomerRequest;
 import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerSearchField;
+import com.hcl.customerservice.dto.CustomerSearchMode;
+import com.hcl.customerservice.dto.CursorPage;
 import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.service.CustomerTypeaheadService;
+import com.hcl.customerservice.util.CustomerCursor;
+import com.hcl.customerservice.util.CustomerETags;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/v1/customers")
 @RequiredArgsConstructor
 @SecurityRequirement(name = "bearerAuth")
 public class CustomerController {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final CustomerService service;
+    private final CustomerTypeaheadService typeaheadService;
 
     @Operation(summary = "Create a new customer", responses = {
             @ApiResponse(responseCode = "201", description = "Customer created"),
@@ -33,56 +52,182 @@ public class CustomerController {
     @PostMapping
     public ResponseEntity<CustomerResponse> createCustomer(@Valid @RequestBody CustomerRequest request) {
         CustomerResponse response = service.createCustomer(request);
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return withETag(ResponseEntity.status(HttpStatus.CREATED), CustomerETags.of(response.getVersion()), response);
     }
 
     @Operation(summary = "Get customer by id", responses = {
-            @ApiResponse(responseCode = "200", description = "Customer found"),
+            @ApiResponse(responseCode = "200", description = "Customer found, with its ETag"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden")
     })
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @GetMapping("/{id}")
-    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable Long id) {
-        return ResponseEntity.ok(service.getCustomerById(id));
+    public ResponseEntity<CustomerResponse> getCustomer(@PathVariable Long id, WebRequest webRequest) {
+        // Decided on the version alone (cache or one indexed lookup): no row load, mapping or JSON.
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(CustomerETags.of(service.getCustomerVersion(id)))) {
+            return null;
+        }
+        CustomerResponse customer = service.getCustomerById(id);
+        return withETag(ResponseEntity.ok(), CustomerETags.of(customer.getVersion()), customer);
     }
 
     @Operation(summary = "Get all customers", responses = {
-            @ApiResponse(responseCode = "200", description = "List returned"),
+            @ApiResponse(responseCode = "200", description = "List returned, with its ETag"),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden")
     })
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
     @GetMapping
-    public ResponseEntity<Page<CustomerResponse>> getAllCustomers(Pageable pageable) {
-        return ResponseEntity.ok(service.getAllCustomers(pageable));
+    public ResponseEntity<Page<CustomerResponse>> getAllCustomers(Pageable pageable, WebRequest webRequest) {
+        // The ETag comes from the loaded page: an id/version query would repeat the same scan and
+        // count, only to be followed by both again whenever the page has changed.
+        Page<CustomerResponse> page = service.getAllCustomers(pageable);
+        String etag = CustomerETags.ofPage(page);
+        if (etag != null && webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return withETag(ResponseEntity.ok(), etag, page);
+    }
+
+    @Operation(summary = "List customers with keyset (cursor) pagination; no total count is computed", responses = {
+            @ApiResponse(responseCode = "200", description = "Page returned with nextCursor when more rows exist"),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<CustomerResponse>> getCustomersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "ID") CustomerCursor.SortKey sort,
+            @RequestParam(defaultValue = "false") boolean desc) {
+        int boundedSize = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+        return ResponseEntity.ok(service.getCustomersAfter(cursor, boundedSize, sort, desc));
+    }
+
+    @Operation(summary = "Case-insensitive prefix or substring search on name and/or email, keyset-paginated by id", responses = {
+            @ApiResponse(responseCode = "200", description = "Page returned with nextCursor when more matches exist"),
+            @ApiResponse(responseCode = "400", description = "Search term too short or too long, or malformed cursor"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden"),
+            @ApiResponse(responseCode = "503", description = "Search exceeded its time limit; use a more specific term")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<CustomerResponse>> searchCustomers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "ANY") CustomerSearchField field,
+            @RequestParam(defaultValue = "PREFIX") CustomerSearchMode mode,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        int boundedSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        return ResponseEntity.ok(service.searchCustomers(q, field, mode, cursor, boundedSize));
+    }
+
+    @Operation(summary = "Typeahead suggestions: customers whose name words or email start with the words of q", responses = {
+            @ApiResponse(responseCode = "200", description = "Suggestions returned, served from memory once the index is loaded"),
+            @ApiResponse(responseCode = "400", description = "Empty or overlong query"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping("/typeahead")
+    public ResponseEntity<List<CustomerResponse>> suggestCustomers(
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        int boundedLimit = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+        return ResponseEntity.ok(typeaheadService.suggest(q, boundedLimit));
     }
 
     @Operation(summary = "Update an existing customer", responses = {
-            @ApiResponse(responseCode = "200", description = "Customer updated"),
+            @ApiResponse(responseCode = "200", description = "Customer updated, with its new ETag"),
             @ApiResponse(responseCode = "404", description = "Not found"),
             @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "409", description = "Updated concurrently by another request"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @PutMapping("/{id}")
     public ResponseEntity<CustomerResponse> updateCustomer(@PathVariable Long id,
-                                                           @Valid @RequestBody CustomerRequest request) {
-        return ResponseEntity.ok(service.updateCustomer(id, request));
+                                                           @Valid @RequestBody CustomerRequest request,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        CustomerResponse updated = service.updateCustomer(id, request, CustomerETags.requiredVersion(ifMatch));
+        return withETag(ResponseEntity.ok(), CustomerETags.of(updated.getVersion()), updated);
+    }
+
+    @Operation(summary = "Create or update the customer owning the given email in one statement", responses = {
+            @ApiResponse(responseCode = "200", description = "Customer created or updated"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/by-email")
+    public ResponseEntity<CustomerResponse> upsertCustomer(@Valid @RequestBody CustomerRequest request) {
+        CustomerResponse response = service.upsertCustomerByEmail(request);
+        return withETag(ResponseEntity.ok(), CustomerETags.of(response.getVersion()), response);
     }
 
     @Operation(summary = "Delete a customer", responses = {
             @ApiResponse(responseCode = "204", description = "Deleted"),
             @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "412", description = "If-Match does not match the current ETag"),
             @ApiResponse(responseCode = "401", description = "Unauthorized"),
             @ApiResponse(responseCode = "403", description = "Forbidden")
     })
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteCustomer(@PathVariable Long id) {
-        service.deleteCustomer(id);
+    public ResponseEntity<Void> deleteCustomer(@PathVariable Long id,
+                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        service.deleteCustomer(id, CustomerETags.requiredVersion(ifMatch));
         return ResponseEntity.noContent().build();
     }
+
+    @Operation(summary = "Create customers in bulk", responses = {
+            @ApiResponse(responseCode = "200", description = "Per-item results returned"),
+            @ApiResponse(responseCode = "413", description = "Batch too large"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResponse> createCustomers(@RequestBody List<CustomerRequest> requests) {
+        return ResponseEntity.ok(service.createCustomers(requests));
+    }
+
+    @Operation(summary = "Update customers in bulk", responses = {
+            @ApiResponse(responseCode = "200", description = "Per-item results returned"),
+            @ApiResponse(responseCode = "413", description = "Batch too large"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/batch")
+    public ResponseEntity<BatchResponse> updateCustomers(@RequestBody List<CustomerBatchUpdateRequest> requests) {
+        return ResponseEntity.ok(service.updateCustomers(requests));
+    }
+
+    @Operation(summary = "Delete customers in bulk", responses = {
+            @ApiResponse(responseCode = "200", description = "Per-item results returned"),
+            @ApiResponse(responseCode = "413", description = "Batch too large"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResponse> deleteCustomers(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(service.deleteCustomers(ids));
+    }
+
+    private static <T> ResponseEntity<T> withETag(ResponseEntity.BodyBuilder builder, String etag, T body) {
+        return etag == null ? builder.body(body) : builder.eTag(etag).body(body);
+    }
 }
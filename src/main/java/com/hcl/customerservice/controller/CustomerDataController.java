@@ -0,0 +1,95 @@
+package com.hcl.customerservice.controller;
+
+import com.hcl.customerservice.dto.CustomerFileFormat;
+import com.hcl.customerservice.dto.ImportJobStatus;
+import com.hcl.customerservice.service.CustomerExportService;
+import com.hcl.customerservice.service.CustomerImportService;
+import com.hcl.customerservice.util.ApiConstants;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Locale;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping(ApiConstants.BASE_PATH)
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class CustomerDataController {
+
+    private final CustomerExportService exportService;
+    private final CustomerImportService importService;
+
+    @Operation(summary = "Stream every customer as NDJSON or CSV", responses = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public void exportCustomers(@RequestParam(defaultValue = "NDJSON") CustomerFileFormat format,
+                                HttpServletResponse response) throws IOException {
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"customers." + format.name().toLowerCase(Locale.ROOT) + "\"");
+        exportService.exportCustomers(format, response.getOutputStream());
+    }
+
+    @Operation(summary = "Upload a CSV (name,email header) or NDJSON file as the raw request body for bulk import", responses = {
+            @ApiResponse(responseCode = "202", description = "Import queued; poll the Location for progress"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/import")
+    public ResponseEntity<ImportJobStatus> importCustomers(@RequestParam(defaultValue = "CSV") CustomerFileFormat format,
+                                                           HttpServletRequest request) throws IOException {
+        ImportJobStatus status = importService.startImport(format, request.getInputStream());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create(ApiConstants.BASE_PATH + "/import/" + status.getJobId()))
+                .body(status);
+    }
+
+    @Operation(summary = "Get bulk import progress", responses = {
+            @ApiResponse(responseCode = "200", description = "Status returned"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportJobStatus> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(importService.getStatus(jobId));
+    }
+
+    @Operation(summary = "Download the rejected rows of a bulk import", responses = {
+            @ApiResponse(responseCode = "200", description = "Reject file returned"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/import/{jobId}/rejects")
+    public ResponseEntity<Resource> getImportRejects(@PathVariable String jobId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(CustomerFileFormat.CSV.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + jobId + "-rejects.csv\"")
+                .body(new FileSystemResource(importService.getRejectFile(jobId)));
+    }
+}
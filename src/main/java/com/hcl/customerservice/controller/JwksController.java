@@ -0,0 +1,31 @@
+package com.hcl.customerservice.controller;
+
+import com.hcl.customerservice.security.JwtService;
+import io.swagger.v3.oas.annotations.Operation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * Publishes the token verification keys so gateways and other services can check our JWTs
+ * locally. Serves both the servlet and reactive stacks.
+ */
+@RestController
+@RequiredArgsConstructor
+public class JwksController {
+
+    private final JwtService jwtService;
+
+    @Operation(summary = "JSON Web Key Set with the public keys that verify access tokens (empty under HS256)")
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic())
+                .body(jwtService.getJwks());
+    }
+}
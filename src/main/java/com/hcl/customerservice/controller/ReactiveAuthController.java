@@ -0,0 +1,92 @@
+package com.hcl.customerservice.controller;
+
+import com.hcl.customerservice.dto.AuthenticationRequest;
+import com.hcl.customerservice.dto.AuthenticationResponse;
+import com.hcl.customerservice.dto.RefreshTokenRequest;
+import com.hcl.customerservice.logging.LogMarkers;
+import com.hcl.customerservice.security.PasswordHashingBusyException;
+import com.hcl.customerservice.security.RefreshTokenService;
+import com.hcl.customerservice.security.TokenPair;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveAuthController.class);
+
+    private final ReactiveAuthenticationManager authenticationManager;
+    private final RefreshTokenService refreshTokenService;
+
+    @Operation(summary = "Authenticate user and obtain JWT token", responses = {
+            @ApiResponse(responseCode = "200", description = "Authentication successful"),
+            @ApiResponse(responseCode = "401", description = "Invalid credentials"),
+            @ApiResponse(responseCode = "503", description = "Too many concurrent logins; retry after the Retry-After delay")
+    })
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthenticationResponse>> login(@RequestBody AuthenticationRequest request) {
+        return authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()))
+                .map(authentication -> {
+                    TokenPair tokens = refreshTokenService.issue((UserDetails) authentication.getPrincipal());
+                    logger.info("User {} authenticated successfully", request.getUsername());
+                    return ResponseEntity.ok(AuthController.response(tokens));
+                })
+                .onErrorResume(PasswordHashingBusyException.class, ex -> {
+                    logger.warn(LogMarkers.EXPECTED, "Login rejected, password hashing saturated");
+                    return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                            .header(HttpHeaders.RETRY_AFTER, "1").build());
+                })
+                .onErrorResume(AuthenticationException.class, ex -> {
+                    logger.warn(LogMarkers.EXPECTED, "Authentication failed for user {}", request.getUsername());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+
+    // The token store is in memory under this profile, so neither call blocks.
+    @Operation(summary = "Exchange a refresh token for a new access and refresh token", responses = {
+            @ApiResponse(responseCode = "200", description = "Tokens rotated; the presented refresh token is now spent"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid, expired, revoked or already used")
+    })
+    @PostMapping("/refresh")
+    public Mono<ResponseEntity<AuthenticationResponse>> refresh(@RequestBody RefreshTokenRequest request) {
+        return Mono.fromCallable(() -> ResponseEntity.ok(AuthController.response(refreshTokenService.refresh(request.getRefreshToken()))))
+                .onErrorResume(BadCredentialsException.class, ex -> {
+                    logger.warn(LogMarkers.EXPECTED, "Refresh rejected: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+
+    @Operation(summary = "End the session of a refresh token, including its access tokens", responses = {
+            @ApiResponse(responseCode = "204", description = "Session revoked"),
+            @ApiResponse(responseCode = "401", description = "Refresh token invalid")
+    })
+    @PostMapping("/logout")
+    public Mono<ResponseEntity<Void>> logout(@RequestBody RefreshTokenRequest request) {
+        return Mono.fromCallable(() -> {
+                    refreshTokenService.revoke(request.getRefreshToken());
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .onErrorResume(BadCredentialsException.class, ex -> {
+                    logger.warn(LogMarkers.EXPECTED, "Logout rejected: {}", ex.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).build());
+                });
+    }
+}
@@ -0,0 +1,119 @@
+package com.hcl.customerservice.controller;
+
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.service.ReactiveCustomerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * WebFlux variant of {@link CustomerController}, active under the "reactive" profile. It covers the
+ * single-customer create, read, update and delete endpoints and the paged list with the same paths
+ * and roles. GET /api/v1/customers additionally streams the whole table as NDJSON, honouring client
+ * backpressure, when the client accepts application/x-ndjson.
+ * <p>
+ * It differs from the blocking controller in that:
+ * <ul>
+ *   <li>responses carry no ETag, and If-None-Match / If-Match are ignored (no 304 or 412);</li>
+ *   <li>the list takes plain {@code page} and {@code size} parameters, is always ordered by id and
+ *       ignores {@code sort};</li>
+ *   <li>the cursor, search, typeahead, by-email upsert and batch endpoints are not available.</li>
+ * </ul>
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/v1/customers")
+@RequiredArgsConstructor
+@SecurityRequirement(name = "bearerAuth")
+public class ReactiveCustomerController {
+
+    private final ReactiveCustomerService service;
+
+    @Operation(summary = "Create a new customer", responses = {
+            @ApiResponse(responseCode = "201", description = "Customer created"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public Mono<ResponseEntity<CustomerResponse>> createCustomer(@Valid @RequestBody CustomerRequest request) {
+        return service.createCustomer(request)
+                .map(response -> new ResponseEntity<>(response, HttpStatus.CREATED));
+    }
+
+    @Operation(summary = "Get customer by id", responses = {
+            @ApiResponse(responseCode = "200", description = "Customer found"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<CustomerResponse>> getCustomer(@PathVariable Long id) {
+        return service.getCustomerById(id).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Get all customers", responses = {
+            @ApiResponse(responseCode = "200", description = "List returned"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Page<CustomerResponse>>> getAllCustomers(@RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "20") int size) {
+        return service.getAllCustomers(PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 2000))))
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Stream all customers as NDJSON", responses = {
+            @ApiResponse(responseCode = "200", description = "Stream returned"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<CustomerResponse> streamCustomers() {
+        return service.streamCustomers();
+    }
+
+    @Operation(summary = "Update an existing customer", responses = {
+            @ApiResponse(responseCode = "200", description = "Customer updated"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "400", description = "Validation failed"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<CustomerResponse>> updateCustomer(@PathVariable Long id,
+                                                                 @Valid @RequestBody CustomerRequest request) {
+        return service.updateCustomer(id, request).map(ResponseEntity::ok);
+    }
+
+    @Operation(summary = "Delete a customer", responses = {
+            @ApiResponse(responseCode = "204", description = "Deleted"),
+            @ApiResponse(responseCode = "404", description = "Not found"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized"),
+            @ApiResponse(responseCode = "403", description = "Forbidden")
+    })
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteCustomer(@PathVariable Long id) {
+        return service.deleteCustomer(id).then(Mono.just(ResponseEntity.noContent().build()));
+    }
+}
@@ -0,0 +1,133 @@
+package com.hcl.customerservice.datasource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Sends read-only transactions to a replica and everything else to the primary. A read-only
+ * transaction stays on the primary when its client committed a write within the sticky window
+ * (so it reads its own writes), and when no replica is within the lag limit or the chosen one
+ * fails to connect.
+ * <p>
+ * The route is chosen when a connection is requested, so this must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: transaction managers
+ * take the connection before the transaction is marked read-only, the proxy defers it to the first
+ * statement.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final ReplicaSet replicas;
+    private final RecentWriters recentWriters;
+    // The current caller, or null outside a request (imports, startup).
+    private final Supplier<String> client;
+    private final Map<Route, LongAdder> routed = new EnumMap<>(Route.class);
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaSet replicas, RecentWriters recentWriters,
+                                      Supplier<String> client) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.recentWriters = recentWriters;
+        this.client = client;
+        for (Route route : Route.values()) {
+            routed.put(route, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs {@code work} with all its connections on the primary, read-only transactions included:
+     * for reads that must not miss a recent write, such as a snapshot that later changes are
+     * applied on top of.
+     */
+    public static void onPrimary(Runnable work) {
+        boolean outermost = PRIMARY_ONLY.get() == null;
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            work.run();
+        } finally {
+            if (outermost) {
+                PRIMARY_ONLY.remove();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (PRIMARY_ONLY.get() != null) {
+            return primary(Route.PRIMARY);
+        }
+        String caller = client.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (caller != null) {
+                recordWrite(caller);
+            }
+            return primary(Route.PRIMARY);
+        }
+        if (caller != null && recentWriters.wroteRecently(caller)) {
+            return primary(Route.STICKY);
+        }
+        ReplicaSet.Replica replica = replicas.next();
+        if (replica == null) {
+            return primary(Route.FALLBACK);
+        }
+        try {
+            Connection connection = replica.pool().getConnection();
+            routed.get(Route.REPLICA).increment();
+            return connection;
+        } catch (SQLException ex) {
+            replicas.failed(replica, ex);
+            return primary(Route.FALLBACK);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Credentials are configured per pool");
+    }
+
+    public long routed(Route route) {
+        return routed.get(route).sum();
+    }
+
+    private Connection primary(Route route) throws SQLException {
+        Connection connection = primary.getConnection();
+        routed.get(route).increment();
+        return connection;
+    }
+
+    // A read-write transaction may not write at all; it only costs that client a few primary reads.
+    private void recordWrite(String caller) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.record(caller);
+            }
+        });
+    }
+
+    public enum Route {
+        /** Read-write transactions and work outside any transaction. */
+        PRIMARY,
+        /** Read-only transactions served by a replica. */
+        REPLICA,
+        /** Read-only, on the primary: the client wrote within the sticky window. */
+        STICKY,
+        /** Read-only, on the primary: no replica was within the lag limit or reachable. */
+        FALLBACK
+    }
+}
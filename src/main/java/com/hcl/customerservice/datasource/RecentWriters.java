@@ -0,0 +1,36 @@
+package com.hcl.customerservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Clients that committed a write within the last {@code window}, so that their reads can skip
+ * replicas that may not have replayed it yet. Local to this instance: a client whose next request
+ * lands on another instance is not known there.
+ * <p>
+ * Clients are keyed by username, so everyone sharing an account shares its stickiness: after one
+ * of them writes, every request of that account on this instance reads from the primary, and none
+ * does on the other instances. Other users' reads are never sticky; what keeps them from caching a
+ * replica's pre-write row is the version floor each committed write sets in the customer cache.
+ */
+public class RecentWriters {
+
+    private final Cache<String, Boolean> writers;
+
+    public RecentWriters(Duration window, long maxSize) {
+        this.writers = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(window)
+                .build();
+    }
+
+    public void record(String client) {
+        writers.put(client, Boolean.TRUE);
+    }
+
+    public boolean wroteRecently(String client) {
+        return writers.getIfPresent(client) != null;
+    }
+}
@@ -0,0 +1,157 @@
+package com.hcl.customerservice.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connection pools for the read replicas, each configured like the primary's pool except for its
+ * URL. Every replica is probed for replication lag once per check interval and serves reads only
+ * while its last probe succeeded within {@code maxLag}; {@link #next()} rotates over those.
+ */
+public class ReplicaSet implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaSet.class);
+
+    // A replica that has replayed all the WAL it received is current; otherwise its lag is the age
+    // of the last transaction it replayed. A server that is not in recovery has no lag.
+    private static final String LAG_SQL = "select case when not pg_is_in_recovery() then 0"
+            + " when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0"
+            + " else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+    private static final int LAG_QUERY_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService checker;
+
+    public ReplicaSet(HikariDataSource primary, List<String> urls, Duration maxLag, Duration checkInterval) {
+        String poolName = primary.getPoolName() != null ? primary.getPoolName() : "customer-db";
+        List<Replica> pools = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            HikariDataSource pool = new HikariDataSource();
+            primary.copyStateTo(pool);
+            pool.setJdbcUrl(url.trim());
+            pool.setPoolName(poolName + "-replica-" + (pools.size() + 1));
+            // Start without connecting: a replica that is down only keeps reads on the primary.
+            pool.setInitializationFailTimeout(-1);
+            pools.add(new Replica(pool));
+        }
+        this.replicas = List.copyOf(pools);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        // A thread per replica: a probe stuck on an unreachable one must not hold up the others.
+        this.checker = Executors.newScheduledThreadPool(replicas.size(), runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Replicas serve nothing until their first probe.
+        for (Replica replica : replicas) {
+            checker.scheduleWithFixedDelay(() -> check(replica), 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public List<Replica> replicas() {
+        return replicas;
+    }
+
+    /** The next replica that may serve reads, in rotation, or {@code null} if there is none. */
+    public Replica next() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.available) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /** Takes a replica that failed to hand out a connection out of rotation until its next good probe. */
+    public void failed(Replica replica, SQLException ex) {
+        if (replica.available) {
+            logger.warn("Replica {} failed, reads go elsewhere until it is back: {}", replica.name(), ex.getMessage());
+        }
+        replica.available = false;
+        replica.lagSeconds = Double.NaN;
+    }
+
+    private void check(Replica replica) {
+        double lag = probe(replica);
+        boolean available = lag <= maxLagSeconds;
+        if (available != replica.available) {
+            if (available) {
+                logger.info("Replica {} serves reads ({}s behind)", replica.name(), lag);
+            } else if (Double.isNaN(lag)) {
+                logger.warn("Replica {} is unreachable; its reads go elsewhere", replica.name());
+            } else {
+                logger.warn("Replica {} is {}s behind, over the {}s limit; its reads go elsewhere",
+                        replica.name(), lag, maxLagSeconds);
+            }
+        }
+        replica.lagSeconds = lag;
+        replica.available = available;
+    }
+
+    // NaN when the replica cannot be reached; NaN <= anything is false.
+    private static double probe(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(LAG_QUERY_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                return rs.getDouble(1);
+            }
+        } catch (SQLException | RuntimeException ex) {
+            logger.debug("Lag probe of replica {} failed", replica.name(), ex);
+            return Double.NaN;
+        }
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    public static final class Replica {
+
+        private final HikariDataSource pool;
+        private volatile boolean available;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(HikariDataSource pool) {
+            this.pool = pool;
+        }
+
+        public String name() {
+            return pool.getPoolName();
+        }
+
+        public HikariDataSource pool() {
+            return pool;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        /** Replication lag found by the last probe, NaN if it failed. */
+        public double lagSeconds() {
+            return lagSeconds;
+        }
+    }
+}
@@ -9,4 +9,6 @@ import lombok.*;
 @Builder
 public class AuthenticationResponse {
     private String token;
+    private String refreshToken;
+    private long expiresIn; // access token lifetime in seconds
 }
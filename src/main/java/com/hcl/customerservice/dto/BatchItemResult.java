@@ -0,0 +1,18 @@
+package com.hcl.customerservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchItemResult {
+
+    public enum Status { CREATED, UPDATED, DELETED, INVALID, CONFLICT, NOT_FOUND }
+
+    private int index;
+    private Long id;
+    private Status status;
+    private String message;
+}
@@ -0,0 +1,26 @@
+package com.hcl.customerservice.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CustomerBatchUpdateRequest {
+
+    @NotNull(message = "Id must not be null")
+    private Long id;
+
+    @NotBlank(message = "Name must not be blank")
+    @Size(max = 150, message = "Name cannot exceed 150 characters")
+    private String name;
+
+    @NotBlank(message = "Email must not be blank")
+    @Email(message = "Email should be valid")
+    private String email;
+}
@@ -0,0 +1,19 @@
+package com.hcl.customerservice.dto;
+
+/**
+ * Line-oriented formats used for bulk customer export and import.
+ */
+public enum CustomerFileFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+
+    CustomerFileFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hcl.customerservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.*;
 
 @Getter
@@ -11,4 +12,8 @@ public class CustomerResponse {
     private Long id;
     private String name;
     private String email;
+
+    // Row version: lets caches tell a stale copy from a fresh one. Not part of the JSON body.
+    @JsonIgnore
+    private Long version;
 }
@@ -0,0 +1,10 @@
+package com.hcl.customerservice.dto;
+
+/**
+ * Columns a customer search matches against.
+ */
+public enum CustomerSearchField {
+    ANY,
+    NAME,
+    EMAIL
+}
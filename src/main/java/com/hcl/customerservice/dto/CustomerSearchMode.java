@@ -0,0 +1,21 @@
+package com.hcl.customerservice.dto;
+
+/**
+ * How a customer search term is matched; both are case-insensitive.
+ */
+public enum CustomerSearchMode {
+    /** Value starts with the term; served by the text_pattern_ops btree indexes. */
+    PREFIX(1),
+    /** Value contains the term; served by the pg_trgm GIN indexes, which need a full trigram. */
+    CONTAINS(3);
+
+    private final int minLength;
+
+    CustomerSearchMode(int minLength) {
+        this.minLength = minLength;
+    }
+
+    public int getMinLength() {
+        return minLength;
+    }
+}
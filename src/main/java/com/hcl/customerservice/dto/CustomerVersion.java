@@ -0,0 +1,7 @@
+package com.hcl.customerservice.dto;
+
+/**
+ * A customer's id and row version: all a list's ETag is computed from.
+ */
+public record CustomerVersion(long id, long version) {
+}
@@ -0,0 +1,26 @@
+package com.hcl.customerservice.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImportJobStatus {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private String jobId;
+    private State state;
+    private CustomerFileFormat format;
+    private long rowsRead;
+    private long imported;
+    private long rejected;
+    private long batchesCommitted;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String message;
+}
@@ -0,0 +1,12 @@
+package com.hcl.customerservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshTokenRequest {
+    private String refreshToken;
+}
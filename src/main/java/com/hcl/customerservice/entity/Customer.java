@@ -9,6 +9,8 @@ import lombok.*;
 @Entity
 @Table(name = "customers", uniqueConstraints = {
         @UniqueConstraint(columnNames = "email", name = "uk_customer_email")
+}, indexes = {
+        @Index(name = "idx_customer_name_id", columnList = "name, id")
 })
 @Getter
 @Setter
@@ -17,13 +19,21 @@ import lombok.*;
 @Builder
 public class Customer {
 
+    // Sequence ids (pooled, 50 per round trip) let Hibernate batch inserts; IDENTITY forces one
+    // INSERT per row. V4__legacy_schema_fixes.sql moves the former bigserial sequence to 50.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_id_seq")
+    @SequenceGenerator(name = "customer_id_seq", sequenceName = "customers_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 150)
     private String name;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
+
+    // Incremented on every update; a concurrent update of the same row fails at flush.
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
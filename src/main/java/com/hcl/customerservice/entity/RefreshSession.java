@@ -0,0 +1,38 @@
+package com.hcl.customerservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * A login session for refresh-token rotation; see {@code JpaRefreshTokenStore}.
+ */
+@Entity
+@Table(name = "refresh_sessions", indexes = {
+        @Index(name = "idx_refresh_session_revoked_until", columnList = "revokedUntil"),
+        @Index(name = "idx_refresh_session_expires_at", columnList = "expiresAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RefreshSession {
+
+    @Id
+    @Column(length = 36)
+    private String family;
+
+    @Column(nullable = false, length = 36)
+    private String tokenId;
+
+    @Column(nullable = false, length = 100)
+    private String subject;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Set when the session is revoked; its access tokens are denied until then.
+    private Instant revokedUntil;
+}
@@ -0,0 +1,7 @@
+package com.hcl.customerservice.exception;
+
+public class BatchSizeExceededException extends BusinessException {
+    public BatchSizeExceededException(int size, int max) {
+        super("Batch of " + size + " items exceeds the maximum of " + max);
+    }
+}
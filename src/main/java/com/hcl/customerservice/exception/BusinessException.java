@@ -0,0 +1,13 @@
+package com.hcl.customerservice.exception;
+
+/**
+ * Base for exceptions that report an expected outcome (missing customer, duplicate email, bad cursor)
+ * rather than a bug. They are mapped to 4xx responses and never logged with a trace, so the stack
+ * trace is not captured: filling it in cost more than the rest of a typical 404.
+ */
+public abstract class BusinessException extends RuntimeException {
+
+    protected BusinessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -1,6 +1,6 @@
 package com.hcl.customerservice.exception;
 
-public class CustomerNotFoundException extends RuntimeException {
+public class CustomerNotFoundException extends BusinessException {
     public CustomerNotFoundException(Long id) {
         super("Customer with id " + id + " not found");
     }
@@ -1,6 +1,6 @@
 package com.hcl.customerservice.exception;
 
-public class EmailAlreadyExistsException extends RuntimeException {
+public class EmailAlreadyExistsException extends BusinessException {
     public EmailAlreadyExistsException(String email) {
         super("Email already in use: " + email);
     }
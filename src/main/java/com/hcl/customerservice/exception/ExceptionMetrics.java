@@ -0,0 +1,39 @@
+package com.hcl.customerservice.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Counts exceptions turned into error responses, tagged by exception type and resulting status.
+ * Counters are registered once per type and status and then reused, so recording an error
+ * response is two map lookups and an increment.
+ */
+final class ExceptionMetrics {
+
+    static final String METER_NAME = "customer.exceptions";
+
+    private final MeterRegistry registry;
+    private final Map<Class<?>, Map<HttpStatus, Counter>> counters = new ConcurrentHashMap<>();
+
+    ExceptionMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    void record(Throwable ex, HttpStatus status) {
+        counters.computeIfAbsent(ex.getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, ignored -> register(ex.getClass(), status))
+                .increment();
+    }
+
+    private Counter register(Class<?> type, HttpStatus status) {
+        return Counter.builder(METER_NAME)
+                .description("Exceptions mapped to error responses")
+                .tag("exception", type.getSimpleName())
+                .tag("status", Integer.toString(status.value()))
+                .register(registry);
+    }
+}
@@ -1,8 +1,15 @@
 package com.hcl.customerservice.exception;
 
 import jakarta.servlet.http.HttpServletRequest;
+import com.hcl.customerservice.logging.LogMarkers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -10,94 +17,108 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * Maps exceptions to RFC 7807 {@code application/problem+json} bodies, rendered by {@link ProblemJson}.
+ */
 @RestControllerAdvice
+@Profile("!reactive")
 public class GlobalExceptionHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    @Autowired(required = false)
+    MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ExceptionMetrics exceptionMetrics;
+
     @ExceptionHandler(CustomerNotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleNotFound(CustomerNotFoundException ex, HttpServletRequest request) {
-        logger.error("Customer not found", ex);
-        return buildResponse(HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
+    public ResponseEntity<byte[]> handleNotFound(CustomerNotFoundException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 404: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
+    }
+
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<byte[]> handleImportJobNotFound(ImportJobNotFoundException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 404: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage(), request.getRequestURI());
     }
 
     @ExceptionHandler(EmailAlreadyExistsException.class)
-    public ResponseEntity<ErrorResponse> handleEmailExists(EmailAlreadyExistsException ex, HttpServletRequest request) {
-        logger.error("Email conflict", ex);
-        return buildResponse(HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
+    public ResponseEntity<byte[]> handleEmailExists(EmailAlreadyExistsException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 409: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage(), request.getRequestURI());
     }
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest request) {
-        logger.error("Validation error", ex);
-        Map<String, String> errors = new HashMap<>();
-        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
-            errors.put(error.getField(), error.getDefaultMessage());
-        }
-        ErrorResponse response = new ErrorResponse(
-                LocalDateTime.now(),
-                HttpStatus.BAD_REQUEST.value(),
-                "Validation Failed",
-                errors.toString(),
-                request.getRequestURI()
-        );
-        return new ResponseEntity<>(response, HttpStatus.BAD_REQUEST);
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<byte[]> handleBatchSize(BatchSizeExceededException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 413: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.PAYLOAD_TOO_LARGE, ex.getMessage(), request.getRequestURI());
     }
 
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGeneric(Exception ex, HttpServletRequest request) {
-        logger.error("Unexpected error", ex);
-        return buildResponse(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred", request.getRequestURI());
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<byte[]> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 400: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
     }
 
-    private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message, String path) {
-        ErrorResponse response = new ErrorResponse(
-                LocalDateTime.now(),
-                status.value(),
-                status.getReasonPhrase(),
-                message,
-                path
-        );
-        return new ResponseEntity<>(response, status);
+    @ExceptionHandler(InvalidSearchException.class)
+    public ResponseEntity<byte[]> handleInvalidSearch(InvalidSearchException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 400: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.BAD_REQUEST, ex.getMessage(), request.getRequestURI());
     }
 
-    static class ErrorResponse {
-        private LocalDateTime timestamp;
-        private int status;
-        private String error;
-        private String message;
-        private String path;
-
-        public ErrorResponse(LocalDateTime timestamp, int status, String error, String message, String path) {
-            this.timestamp = timestamp;
-            this.status = status;
-            this.error = error;
-            this.message = message;
-            this.path = path;
-        }
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<byte[]> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 412: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.PRECONDITION_FAILED, ex.getMessage(), request.getRequestURI());
+    }
 
-        public LocalDateTime getTimestamp() {
-            return timestamp;
-        }
+    // Another request updated the same customer between this one reading and writing it.
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<byte[]> handleConcurrentUpdate(OptimisticLockingFailureException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 409: concurrent update on {}", request.getRequestURI());
+        return buildResponse(ex, HttpStatus.CONFLICT, "Customer was modified concurrently; reload and retry", request.getRequestURI());
+    }
 
-        public int getStatus() {
-            return status;
-        }
+    // Raised when a statement outlives its @Transactional timeout (e.g. a broad search) and is cancelled.
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<byte[]> handleQueryTimeout(QueryTimeoutException ex, HttpServletRequest request) {
+        logger.warn("Returning 503: query timed out on {}", request.getRequestURI());
+        return buildResponse(ex, HttpStatus.SERVICE_UNAVAILABLE, "Query timed out; narrow the request and retry", request.getRequestURI());
+    }
 
-        public String getError() {
-            return error;
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<byte[]> handleValidation(MethodArgumentNotValidException ex, HttpServletRequest request) {
+        logger.info(LogMarkers.EXPECTED, "Returning 400: validation failed on {}", request.getRequestURI());
+        exceptionMetrics().record(ex, HttpStatus.BAD_REQUEST);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            errors.put(error.getField(), error.getDefaultMessage());
         }
+        return ProblemJson.response(HttpStatus.BAD_REQUEST, "Validation failed", request.getRequestURI(), errors);
+    }
 
-        public String getMessage() {
-            return message;
-        }
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleGeneric(Exception ex, HttpServletRequest request) {
+        logger.error("Unexpected error", ex);
+        return buildResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred", request.getRequestURI());
+    }
+
+    private ResponseEntity<byte[]> buildResponse(Throwable ex, HttpStatus status, String message, String path) {
+        exceptionMetrics().record(ex, status);
+        return ProblemJson.response(status, message, path);
+    }
 
-        public String getPath() {
-            return path;
+    // Created on first use rather than at construction: the registry is injected into the field.
+    private ExceptionMetrics exceptionMetrics() {
+        ExceptionMetrics metrics = exceptionMetrics;
+        if (metrics == null) {
+            metrics = new ExceptionMetrics(meterRegistry);
+            exceptionMetrics = metrics;
         }
+        return metrics;
     }
 }
@@ -0,0 +1,7 @@
+package com.hcl.customerservice.exception;
+
+public class ImportJobNotFoundException extends BusinessException {
+    public ImportJobNotFoundException(String jobId) {
+        super("Import job " + jobId + " not found");
+    }
+}
@@ -0,0 +1,7 @@
+package com.hcl.customerservice.exception;
+
+public class InvalidCursorException extends BusinessException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
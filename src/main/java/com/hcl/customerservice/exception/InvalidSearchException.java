@@ -0,0 +1,7 @@
+package com.hcl.customerservice.exception;
+
+public class InvalidSearchException extends BusinessException {
+    public InvalidSearchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.hcl.customerservice.exception;
+
+public class PreconditionFailedException extends BusinessException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,105 @@
+package com.hcl.customerservice.exception;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Renders RFC 7807 problem+json bodies straight to bytes. The constant part of each body
+ * ({@code type}, {@code title}, {@code status}) is built once per status code, and only
+ * {@code detail} and {@code instance} are escaped per call, so an error response allocates
+ * a builder and the byte array, not an object graph for Jackson to walk.
+ */
+final class ProblemJson {
+
+    private static final HttpHeaders HEADERS = problemHeaders();
+
+    private static final String[] PREFIXES = prefixes();
+
+    private ProblemJson() {
+    }
+
+    static ResponseEntity<byte[]> response(HttpStatus status, String detail, String instance) {
+        return new ResponseEntity<>(render(status, detail, instance, null), HEADERS, status);
+    }
+
+    static ResponseEntity<byte[]> response(HttpStatus status, String detail, String instance, Map<String, String> errors) {
+        return new ResponseEntity<>(render(status, detail, instance, errors), HEADERS, status);
+    }
+
+    static byte[] render(HttpStatus status, String detail, String instance, Map<String, String> errors) {
+        String prefix = PREFIXES[status.value()];
+        StringBuilder json = new StringBuilder(prefix.length() + 64 + length(detail) + length(instance));
+        json.append(prefix);
+        appendString(json, detail);
+        json.append(",\"instance\":");
+        appendString(json, instance);
+        if (errors != null && !errors.isEmpty()) {
+            json.append(",\"errors\":{");
+            boolean first = true;
+            for (Map.Entry<String, String> error : errors.entrySet()) {
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                appendString(json, error.getKey());
+                json.append(':');
+                appendString(json, error.getValue());
+            }
+            json.append('}');
+        }
+        json.append('}');
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> json.append("\\\"");
+                case '\\' -> json.append("\\\\");
+                case '\n' -> json.append("\\n");
+                case '\r' -> json.append("\\r");
+                case '\t' -> json.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                }
+            }
+        }
+        json.append('"');
+    }
+
+    private static int length(String value) {
+        return value == null ? 4 : value.length() + 2;
+    }
+
+    private static String[] prefixes() {
+        String[] prefixes = new String[600];
+        for (HttpStatus status : HttpStatus.values()) {
+            StringBuilder prefix = new StringBuilder("{\"type\":\"about:blank\",\"title\":");
+            appendString(prefix, status.getReasonPhrase());
+            prefix.append(",\"status\":").append(status.value()).append(",\"detail\":");
+            prefixes[status.value()] = prefix.toString();
+        }
+        return prefixes;
+    }
+
+    private static HttpHeaders problemHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_PROBLEM_JSON);
+        return HttpHeaders.readOnlyHttpHeaders(headers);
+    }
+}
@@ -0,0 +1,84 @@
+package com.hcl.customerservice.exception;
+
+import com.hcl.customerservice.logging.LogMarkers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * WebFlux mirror of {@link GlobalExceptionHandler}: same status codes and problem+json bodies.
+ */
+@RestControllerAdvice
+@Profile("reactive")
+public class ReactiveExceptionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveExceptionHandler.class);
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private ExceptionMetrics exceptionMetrics;
+
+    @ExceptionHandler(CustomerNotFoundException.class)
+    public ResponseEntity<byte[]> handleNotFound(CustomerNotFoundException ex, ServerWebExchange exchange) {
+        logger.info(LogMarkers.EXPECTED, "Returning 404: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.NOT_FOUND, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(EmailAlreadyExistsException.class)
+    public ResponseEntity<byte[]> handleEmailExists(EmailAlreadyExistsException ex, ServerWebExchange exchange) {
+        logger.info(LogMarkers.EXPECTED, "Returning 409: {}", ex.getMessage());
+        return buildResponse(ex, HttpStatus.CONFLICT, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<byte[]> handleAccessDenied(AccessDeniedException ex, ServerWebExchange exchange) {
+        return buildResponse(ex, HttpStatus.FORBIDDEN, ex.getMessage(), exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<byte[]> handleValidation(WebExchangeBindException ex, ServerWebExchange exchange) {
+        logger.info(LogMarkers.EXPECTED, "Returning 400: validation failed on {}", exchange.getRequest().getPath().value());
+        exceptionMetrics().record(ex, HttpStatus.BAD_REQUEST);
+        Map<String, String> errors = new LinkedHashMap<>();
+        for (FieldError error : ex.getBindingResult().getFieldErrors()) {
+            errors.put(error.getField(), error.getDefaultMessage());
+        }
+        return ProblemJson.response(HttpStatus.BAD_REQUEST, "Validation failed", exchange.getRequest().getPath().value(), errors);
+    }
+
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<byte[]> handleGeneric(Exception ex, ServerWebExchange exchange) {
+        logger.error("Unexpected error", ex);
+        return buildResponse(ex, HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred", exchange);
+    }
+
+    private ResponseEntity<byte[]> buildResponse(Throwable ex, HttpStatus status, String message, ServerWebExchange exchange) {
+        exceptionMetrics().record(ex, status);
+        return ProblemJson.response(status, message, exchange.getRequest().getPath().value());
+    }
+
+    // Created on first use rather than at construction: the registry is injected into the field.
+    private ExceptionMetrics exceptionMetrics() {
+        ExceptionMetrics metrics = exceptionMetrics;
+        if (metrics == null) {
+            metrics = new ExceptionMetrics(meterRegistry);
+            exceptionMetrics = metrics;
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,18 @@
+package com.hcl.customerservice.invalidation;
+
+/**
+ * A committed write to one customer: its id and the row version it produced, or {@link #DELETED}.
+ */
+public record CustomerChange(long id, long version) {
+
+    // Versions start at 0, so a negative one cannot collide with a real row.
+    public static final long DELETED = -1;
+
+    public static CustomerChange deleted(long id) {
+        return new CustomerChange(id, DELETED);
+    }
+
+    public boolean isDeleted() {
+        return version == DELETED;
+    }
+}
@@ -0,0 +1,134 @@
+package com.hcl.customerservice.invalidation;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Applies changes made by other instances to this one's customer cache and typeahead index, and
+ * falls back while the channel carrying them is down: the cache is bypassed and typeahead lookups
+ * go to the database, since either could be missing changes. When the channel is back the cache
+ * starts empty and the typeahead index is reloaded before it serves again.
+ * <p>
+ * Called from the listener thread only.
+ */
+public class CustomerChangeHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerChangeHandler.class);
+
+    private static final String ROWS_SQL = "select id, version, name, email from customers where id = any(?)";
+
+    private final CustomerCache cache;
+    private final CustomerTypeaheadIndex typeahead;
+    // Both null when the typeahead index is disabled.
+    private final JdbcTemplate jdbcTemplate;
+    private final Runnable typeaheadReload;
+    private final Executor reloadExecutor;
+
+    private final AtomicLong outages = new AtomicLong();
+    private boolean down;
+
+    public CustomerChangeHandler(CustomerCache cache, CustomerTypeaheadIndex typeahead,
+                                 JdbcTemplate jdbcTemplate, Runnable typeaheadReload, Executor reloadExecutor) {
+        this.cache = cache;
+        this.typeahead = typeahead;
+        this.jdbcTemplate = jdbcTemplate;
+        this.typeaheadReload = typeaheadReload;
+        this.reloadExecutor = reloadExecutor;
+    }
+
+    public void apply(List<CustomerChange> changes) {
+        for (CustomerChange change : changes) {
+            if (change.isDeleted()) {
+                // No version is newer: a replica that still has the row cannot bring it back.
+                cache.invalidate(change.id(), Long.MAX_VALUE);
+            } else {
+                cache.invalidate(change.id(), change.version());
+            }
+        }
+        if (typeaheadReload != null) {
+            refreshTypeahead(changes);
+        }
+    }
+
+    public void channelDown() {
+        outages.incrementAndGet();
+        down = true;
+        cache.suspend();
+        typeahead.suspend();
+    }
+
+    public void channelUp() {
+        if (!down) {
+            return;
+        }
+        down = false;
+        cache.resume();
+        if (typeaheadReload == null) {
+            typeahead.resume();
+            return;
+        }
+        // Resume only if the channel did not drop again while the reload ran.
+        long outage = outages.get();
+        reloadExecutor.execute(() -> {
+            try {
+                typeaheadReload.run();
+                if (outages.get() == outage) {
+                    typeahead.resume();
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Typeahead reload failed; lookups stay on the database until the next one", ex);
+            }
+        });
+    }
+
+    /** Some changes may have been lost without the channel dropping (e.g. an unreadable payload). */
+    public void resync() {
+        channelDown();
+        channelUp();
+    }
+
+    // Notifications carry ids and versions only, so the new names and emails are read back; a row
+    // that is gone by then was deleted and its own notification is on the way.
+    private void refreshTypeahead(List<CustomerChange> changes) {
+        List<Long> changed = new ArrayList<>();
+        for (CustomerChange change : changes) {
+            if (change.isDeleted()) {
+                typeahead.remove(change.id());
+            } else {
+                changed.add(change.id());
+            }
+        }
+        if (changed.isEmpty()) {
+            return;
+        }
+        Set<Long> found = new HashSet<>();
+        try {
+            jdbcTemplate.query(ROWS_SQL, (ResultSet rs) -> {
+                long id = rs.getLong(1);
+                found.add(id);
+                typeahead.put(id, rs.getLong(2), rs.getString(3), rs.getString(4));
+            }, (Object) changed.toArray(Long[]::new));
+        } catch (DataAccessException ex) {
+            logger.warn("Could not read changed customers for the typeahead index; reloading it", ex);
+            resync();
+            return;
+        }
+        for (Long id : changed) {
+            if (!found.contains(id)) {
+                typeahead.remove(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.hcl.customerservice.invalidation;
+
+/**
+ * Tells the other instances which customers were written, so they drop what they cache about them.
+ * Inside a transaction the changes are collected and sent as part of it: other instances hear of
+ * them only once it commits, and never if it rolls back.
+ */
+public interface CustomerChangePublisher {
+
+    void changed(long id, long version);
+
+    void deleted(long id);
+}
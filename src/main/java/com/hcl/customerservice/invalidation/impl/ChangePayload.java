@@ -0,0 +1,69 @@
+package com.hcl.customerservice.invalidation.impl;
+
+import com.hcl.customerservice.invalidation.CustomerChange;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Text form of a change notification, {@code <node>|<id>:<version>,<id>:<version>...}, with
+ * {@code -1} as the version of a deletion. A transaction's changes are split across as many
+ * payloads as needed to stay under PostgreSQL's 8000-byte NOTIFY limit; everything is ASCII.
+ */
+final class ChangePayload {
+
+    static final int MAX_LENGTH = 7900;
+
+    private ChangePayload() {
+    }
+
+    record Decoded(String node, List<CustomerChange> changes) {
+    }
+
+    static List<String> encode(String node, List<CustomerChange> changes) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder current = new StringBuilder(node).append('|');
+        int header = current.length();
+        for (CustomerChange change : changes) {
+            String entry = change.id() + ":" + change.version();
+            if (current.length() > header && current.length() + 1 + entry.length() > MAX_LENGTH) {
+                payloads.add(current.toString());
+                current.setLength(header);
+            }
+            if (current.length() > header) {
+                current.append(',');
+            }
+            current.append(entry);
+        }
+        if (current.length() > header) {
+            payloads.add(current.toString());
+        }
+        return payloads;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code payload} is not in the format above
+     */
+    static Decoded decode(String payload) {
+        int bar = payload.indexOf('|');
+        if (bar <= 0) {
+            throw new IllegalArgumentException("No sender in change notification");
+        }
+        List<CustomerChange> changes = new ArrayList<>();
+        int start = bar + 1;
+        while (start < payload.length()) {
+            int end = payload.indexOf(',', start);
+            if (end < 0) {
+                end = payload.length();
+            }
+            int colon = payload.indexOf(':', start);
+            if (colon < 0 || colon > end) {
+                throw new IllegalArgumentException("Malformed change: " + payload.substring(start, end));
+            }
+            changes.add(new CustomerChange(Long.parseLong(payload, start, colon, 10),
+                    Long.parseLong(payload, colon + 1, end, 10)));
+            start = end + 1;
+        }
+        return new Decoded(payload.substring(0, bar), changes);
+    }
+}
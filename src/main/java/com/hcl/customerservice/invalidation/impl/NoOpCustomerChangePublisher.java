@@ -0,0 +1,19 @@
+package com.hcl.customerservice.invalidation.impl;
+
+import com.hcl.customerservice.invalidation.CustomerChangePublisher;
+
+/**
+ * Used when cross-instance invalidation is disabled (a single instance needs none).
+ */
+public class NoOpCustomerChangePublisher implements CustomerChangePublisher {
+
+    @Override
+    public void changed(long id, long version) {
+        // nothing to do
+    }
+
+    @Override
+    public void deleted(long id) {
+        // nothing to do
+    }
+}
@@ -0,0 +1,197 @@
+package com.hcl.customerservice.invalidation.impl;
+
+import com.hcl.customerservice.invalidation.CustomerChangeHandler;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+
+/**
+ * Receives change notifications on a dedicated connection that runs {@code LISTEN} for the life of
+ * the process. The connection is checked whenever it has been quiet for a heartbeat interval; when
+ * it fails the handler falls back (see {@link CustomerChangeHandler}) and the listener reconnects
+ * with exponential backoff. Notifications this instance sent itself are skipped: its own writes
+ * already updated its caches.
+ * <p>
+ * Starts before the web server and before the typeahead index is loaded, so nothing is served or
+ * snapshotted ahead of the first {@code LISTEN}.
+ */
+public class PgNotifyChangeListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PgNotifyChangeListener.class);
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MIN_BACKOFF_MS = 500;
+
+    private final ConnectionFactory connections;
+    private final String channel;
+    private final String node;
+    private final CustomerChangeHandler handler;
+    private final Duration heartbeat;
+    private final Duration maxBackoff;
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Connection connection;
+    private Thread thread;
+
+    public PgNotifyChangeListener(ConnectionFactory connections, String channel, String node,
+                                  CustomerChangeHandler handler, Duration heartbeat, Duration maxBackoff) {
+        // Goes into LISTEN unquoted, and pg_notify() compares names exactly: keep it a plain identifier.
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Channel must be a lower-case SQL identifier: " + channel);
+        }
+        this.connections = connections;
+        this.channel = channel;
+        this.node = node;
+        this.handler = handler;
+        this.heartbeat = heartbeat;
+        this.maxBackoff = maxBackoff;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        // First attempt inline: if it fails, the caches are already in fallback mode when traffic starts.
+        connect();
+        thread = new Thread(this::run, "customer-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        close(connection);
+        if (thread != null) {
+            try {
+                thread.join(heartbeat.toMillis());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server (which starts in phase Integer.MAX_VALUE - 1).
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void run() {
+        long backoff = MIN_BACKOFF_MS;
+        while (running) {
+            if (connection == null) {
+                sleep(backoff);
+                backoff = Math.min(backoff * 2, maxBackoff.toMillis());
+                connect();
+                continue;
+            }
+            backoff = MIN_BACKOFF_MS;
+            try {
+                receive(connection);
+            } catch (SQLException | RuntimeException ex) {
+                if (running) {
+                    logger.warn("Customer change channel lost; caches fall back until it is back: {}", ex.getMessage());
+                    connected = false;
+                    handler.channelDown();
+                }
+            } finally {
+                close(connection);
+                connection = null;
+            }
+        }
+    }
+
+    private void connect() {
+        Connection opened = null;
+        try {
+            opened = connections.open();
+            opened.setAutoCommit(true);
+            try (Statement statement = opened.createStatement()) {
+                statement.execute("LISTEN " + channel);
+            }
+            connection = opened;
+            connected = true;
+            handler.channelUp();
+            logger.info("Listening for customer changes on channel {}", channel);
+        } catch (SQLException | RuntimeException ex) {
+            close(opened);
+            logger.warn("Cannot listen for customer changes, will retry; caches fall back meanwhile: {}", ex.getMessage());
+            connected = false;
+            handler.channelDown();
+        }
+    }
+
+    private void receive(Connection listening) throws SQLException {
+        PGConnection pg = listening.unwrap(PGConnection.class);
+        int timeout = (int) heartbeat.toMillis();
+        while (running) {
+            PGNotification[] notifications = pg.getNotifications(timeout);
+            if (notifications == null || notifications.length == 0) {
+                // Quiet: make sure that is not because the connection silently died.
+                if (!listening.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                    throw new SQLException("Listener connection failed validation");
+                }
+                continue;
+            }
+            for (PGNotification notification : notifications) {
+                deliver(notification.getParameter());
+            }
+        }
+    }
+
+    private void deliver(String payload) {
+        ChangePayload.Decoded decoded;
+        try {
+            decoded = ChangePayload.decode(payload);
+        } catch (IllegalArgumentException ex) {
+            logger.warn("Unreadable customer change notification, resynchronising: {}", ex.getMessage());
+            handler.resync();
+            return;
+        }
+        if (!node.equals(decoded.node())) {
+            handler.apply(decoded.changes());
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ex) {
+                logger.debug("Error closing listener connection", ex);
+            }
+        }
+    }
+
+    /** Source of the listening connection; it is held for as long as it works. */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection open() throws SQLException;
+    }
+}
@@ -0,0 +1,93 @@
+package com.hcl.customerservice.invalidation.impl;
+
+import com.hcl.customerservice.invalidation.CustomerChange;
+import com.hcl.customerservice.invalidation.CustomerChangePublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes changes with PostgreSQL {@code NOTIFY}. A transaction's changes are collected and sent
+ * just before it commits, in one statement however many there are; NOTIFY is itself transactional,
+ * so listeners receive them exactly when the writes become visible, in commit order.
+ */
+public class PgNotifyCustomerChangePublisher implements CustomerChangePublisher {
+
+    private static final String NOTIFY_SQL = "select pg_notify(?, payload) from unnest(?::text[]) as payload";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String channel;
+    private final String node;
+
+    public PgNotifyCustomerChangePublisher(DataSource dataSource, String channel, String node) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.channel = channel;
+        this.node = node;
+    }
+
+    @Override
+    public void changed(long id, long version) {
+        publish(new CustomerChange(id, version));
+    }
+
+    @Override
+    public void deleted(long id) {
+        publish(CustomerChange.deleted(id));
+    }
+
+    private void publish(CustomerChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            send(List.of(change));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.changes.add(change);
+    }
+
+    private void send(List<CustomerChange> changes) {
+        // Joins the transaction's connection, like any JdbcTemplate call inside it.
+        String[] payloads = ChangePayload.encode(node, changes).toArray(String[]::new);
+        jdbcTemplate.execute(NOTIFY_SQL, (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, channel);
+            statement.setArray(2, statement.getConnection().createArrayOf("text", payloads));
+            return statement.execute();
+        });
+    }
+
+    // Bound to the transaction as a resource so each write finds it without scanning the
+    // synchronizations; unbound while the transaction is suspended (REQUIRES_NEW) and at its end.
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<CustomerChange> changes = new ArrayList<>();
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(PgNotifyCustomerChangePublisher.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(PgNotifyCustomerChangePublisher.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            send(changes);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(PgNotifyCustomerChangePublisher.this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.hcl.customerservice.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets at most {@code maxPerInterval} events per logger and message template through in each
+ * {@code intervalMillis} window, for events carrying {@link LogMarkers#EXPECTED}. Everything else
+ * is left alone. When a window closes with events dropped, one summary line is logged instead.
+ *
+ * <p>Runs before a LoggingEvent is built, so suppressed events cost a map lookup and an increment.
+ */
+public class ExpectedErrorSamplingFilter extends TurboFilter {
+
+    private static final org.slf4j.Logger summaryLogger = LoggerFactory.getLogger(ExpectedErrorSamplingFilter.class);
+
+    // Message templates are constants in code, so this only guards against a caller building them dynamically.
+    private static final int MAX_KEYS = 1000;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private int maxPerInterval = 10;
+    private long intervalMillis = 10_000;
+
+    LongSupplier clock = System::currentTimeMillis;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (marker == null || format == null || !marker.contains(LogMarkers.EXPECTED) || !logger.isEnabledFor(level)) {
+            return FilterReply.NEUTRAL;
+        }
+        String key = logger.getName() + '|' + format;
+        Window window = windows.get(key);
+        if (window == null) {
+            if (windows.size() >= MAX_KEYS) {
+                windows.clear();
+            }
+            window = windows.computeIfAbsent(key, k -> new Window(clock.getAsLong()));
+        }
+        long now = clock.getAsLong();
+        long suppressed = window.rollIfExpired(now, intervalMillis);
+        if (suppressed > 0) {
+            summaryLogger.info("Suppressed {} '{}' events from {} in the last {} ms",
+                    suppressed, format, logger.getName(), intervalMillis);
+        }
+        return window.admit(maxPerInterval) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    public void setMaxPerInterval(int maxPerInterval) {
+        this.maxPerInterval = maxPerInterval;
+    }
+
+    public void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = intervalMillis;
+    }
+
+    private static final class Window {
+
+        private volatile long start;
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        Window(long start) {
+            this.start = start;
+        }
+
+        /** Starts a new window if this one has expired and returns how many events the old one dropped. */
+        long rollIfExpired(long now, long intervalMillis) {
+            if (now - start < intervalMillis) {
+                return 0;
+            }
+            synchronized (this) {
+                if (now - start < intervalMillis) {
+                    return 0;
+                }
+                start = now;
+                count.set(0);
+                return dropped.getAndSet(0);
+            }
+        }
+
+        boolean admit(int max) {
+            if (count.incrementAndGet() <= max) {
+                return true;
+            }
+            dropped.incrementAndGet();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.hcl.customerservice.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+    /**
+     * Routine, client-caused failures (404, 409, bad tokens). Logged without a stack trace and
+     * sampled by {@link ExpectedErrorSamplingFilter} so a burst cannot flood the log pipeline.
+     */
+    public static final Marker EXPECTED = MarkerFactory.getMarker("EXPECTED");
+
+    private LogMarkers() {
+    }
+}
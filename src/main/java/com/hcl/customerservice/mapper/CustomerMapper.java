@@ -24,6 +24,7 @@ public class CustomerMapper {
                 .id(customer.getId())
                 .name(customer.getName())
                 .email(customer.getEmail())
+                .version(customer.getVersion())
                 .build();
     }
 }
@@ -0,0 +1,69 @@
+package com.hcl.customerservice.profiling;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-endpoint totals of request profiles, keyed by method and route pattern.
+ */
+public class EndpointProfileRegistry {
+
+    private final Map<String, Aggregate> endpoints = new ConcurrentHashMap<>();
+
+    public void record(String endpoint, RequestProfile profile) {
+        endpoints.computeIfAbsent(endpoint, key -> new Aggregate()).add(profile);
+    }
+
+    public Map<String, EndpointProfile> snapshot() {
+        Map<String, EndpointProfile> result = new TreeMap<>();
+        endpoints.forEach((endpoint, aggregate) -> result.put(endpoint, aggregate.summary()));
+        return result;
+    }
+
+    public void clear() {
+        endpoints.clear();
+    }
+
+    public record EndpointProfile(long requests, double avgStatements, int maxStatements, double avgStatementMs,
+                                  double avgFlushMs, double avgDirtyCheckMs, long avgAllocatedBytes,
+                                  long maxAllocatedBytes) {
+    }
+
+    private static final class Aggregate {
+
+        private long requests;
+        private long statements;
+        private int maxStatements;
+        private long statementNanos;
+        private long flushNanos;
+        private long dirtyCheckNanos;
+        private long allocatedBytes;
+        private long maxAllocatedBytes;
+
+        synchronized void add(RequestProfile profile) {
+            requests++;
+            statements += profile.getStatementCount();
+            maxStatements = Math.max(maxStatements, profile.getStatementCount());
+            statementNanos += profile.getStatementNanos();
+            flushNanos += profile.getFlushNanos();
+            dirtyCheckNanos += profile.getDirtyCheckNanos();
+            long allocated = Math.max(0, profile.getAllocatedBytes());
+            allocatedBytes += allocated;
+            maxAllocatedBytes = Math.max(maxAllocatedBytes, allocated);
+        }
+
+        synchronized EndpointProfile summary() {
+            return new EndpointProfile(
+                    requests,
+                    (double) statements / requests,
+                    maxStatements,
+                    statementNanos / 1e6 / requests,
+                    flushNanos / 1e6 / requests,
+                    dirtyCheckNanos / 1e6 / requests,
+                    allocatedBytes / requests,
+                    maxAllocatedBytes
+            );
+        }
+    }
+}
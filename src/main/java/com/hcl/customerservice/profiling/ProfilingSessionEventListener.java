@@ -0,0 +1,54 @@
+package com.hcl.customerservice.profiling;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Hibernate creates one instance per session (hibernate.session.events.auto) and calls it on the
+ * session's thread; timings go to whatever profile is open on that thread. Statements are counted
+ * by {@link ProfilingDataSource}, which also sees the ones issued outside Hibernate.
+ */
+public class ProfilingSessionEventListener implements SessionEventListener {
+
+    private long flushStart;
+    private long partialFlushStart;
+    private long dirtyCheckStart;
+
+    @Override
+    public void flushStart() {
+        flushStart = System.nanoTime();
+    }
+
+    @Override
+    public void flushEnd(int numberOfEntities, int numberOfCollections) {
+        RequestProfile profile = RequestProfiler.current();
+        if (profile != null) {
+            profile.flushed(System.nanoTime() - flushStart);
+        }
+    }
+
+    @Override
+    public void partialFlushStart() {
+        partialFlushStart = System.nanoTime();
+    }
+
+    @Override
+    public void partialFlushEnd(int numberOfEntities, int numberOfCollections) {
+        RequestProfile profile = RequestProfiler.current();
+        if (profile != null) {
+            profile.flushed(System.nanoTime() - partialFlushStart);
+        }
+    }
+
+    @Override
+    public void dirtyCalculationStart() {
+        dirtyCheckStart = System.nanoTime();
+    }
+
+    @Override
+    public void dirtyCalculationEnd(boolean dirty) {
+        RequestProfile profile = RequestProfiler.current();
+        if (profile != null) {
+            profile.dirtyChecked(System.nanoTime() - dirtyCheckStart);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hcl.customerservice.profiling;
+
+/**
+ * Work done by one request (or one profiled block in a test), filled in on the owning thread.
+ * Statement counts and timings come from {@link ProfilingDataSource} at the JDBC level, so they
+ * include SQL issued through JdbcTemplate (the export stream) as well as Hibernate's; flush and
+ * dirty-check timings come from Hibernate session events.
+ */
+public class RequestProfile {
+
+    private final long startAllocatedBytes;
+    private long endAllocatedBytes = -1;
+
+    private int statementCount;
+    private long statementNanos;
+    private int flushCount;
+    private long flushNanos;
+    private long dirtyCheckNanos;
+
+    RequestProfile(long startAllocatedBytes) {
+        this.startAllocatedBytes = startAllocatedBytes;
+    }
+
+    void statementExecuted(int count, long nanos) {
+        statementCount += count;
+        statementNanos += nanos;
+    }
+
+    void flushed(long nanos) {
+        flushCount++;
+        flushNanos += nanos;
+    }
+
+    void dirtyChecked(long nanos) {
+        dirtyCheckNanos += nanos;
+    }
+
+    void finish(long endAllocatedBytes) {
+        this.endAllocatedBytes = endAllocatedBytes;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getStatementNanos() {
+        return statementNanos;
+    }
+
+    public int getFlushCount() {
+        return flushCount;
+    }
+
+    public long getFlushNanos() {
+        return flushNanos;
+    }
+
+    public long getDirtyCheckNanos() {
+        return dirtyCheckNanos;
+    }
+
+    /** Bytes allocated by the thread so far, or in total once the profile is finished; -1 if unsupported. */
+    public long getAllocatedBytes() {
+        if (startAllocatedBytes < 0) {
+            return -1;
+        }
+        long end = endAllocatedBytes >= 0 ? endAllocatedBytes : RequestProfiler.currentThreadAllocatedBytes();
+        return end - startAllocatedBytes;
+    }
+}
@@ -0,0 +1,30 @@
+package com.hcl.customerservice.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/requestprofiles lists per-endpoint averages; DELETE resets them.
+ */
+@Endpoint(id = "requestprofiles")
+public class RequestProfileEndpoint {
+
+    private final EndpointProfileRegistry registry;
+
+    public RequestProfileEndpoint(EndpointProfileRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, EndpointProfileRegistry.EndpointProfile> profiles() {
+        return registry.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        registry.clear();
+    }
+}
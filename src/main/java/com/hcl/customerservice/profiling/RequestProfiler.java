@@ -0,0 +1,50 @@
+package com.hcl.customerservice.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Thread-bound holder for the active {@link RequestProfile}. Nothing is recorded on threads
+ * without an open profile, so background work (imports, schedulers) is never attributed to a request.
+ */
+public final class RequestProfiler {
+
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationAwareThreadBean();
+
+    private RequestProfiler() {
+    }
+
+    public static RequestProfile start() {
+        RequestProfile profile = new RequestProfile(currentThreadAllocatedBytes());
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    public static RequestProfile stop() {
+        RequestProfile profile = CURRENT.get();
+        CURRENT.remove();
+        if (profile != null) {
+            profile.finish(currentThreadAllocatedBytes());
+        }
+        return profile;
+    }
+
+    static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationAwareThreadBean() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean sun && sun.isThreadAllocatedMemorySupported()) {
+            sun.setThreadAllocatedMemoryEnabled(true);
+            return sun;
+        }
+        return null;
+    }
+}
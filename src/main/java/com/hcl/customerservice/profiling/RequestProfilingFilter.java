@@ -0,0 +1,88 @@
+package com.hcl.customerservice.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Opens a {@link RequestProfile} around each request, reports it in response headers and adds it to
+ * the per-endpoint totals. Headers are written just before the response commits so that work done
+ * while the body is serialized still lands in the totals, if not in the headers.
+ */
+public class RequestProfilingFilter extends OncePerRequestFilter {
+
+    static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    static final String ALLOCATED_BYTES_HEADER = "X-Allocated-Bytes";
+    static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private final EndpointProfileRegistry registry;
+
+    public RequestProfilingFilter(EndpointProfileRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestProfile profile = RequestProfiler.start();
+        ProfileHeaderWriter wrapped = new ProfileHeaderWriter(response, profile);
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            RequestProfiler.stop();
+            wrapped.writeHeaders();
+            registry.record(endpoint(request), profile);
+        }
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : "unmapped");
+    }
+
+    static String serverTiming(RequestProfile profile) {
+        return String.format(Locale.ROOT, "db;dur=%.3f;desc=\"%d statements\", flush;dur=%.3f, dirty-check;dur=%.3f",
+                profile.getStatementNanos() / 1e6,
+                profile.getStatementCount(),
+                profile.getFlushNanos() / 1e6,
+                profile.getDirtyCheckNanos() / 1e6);
+    }
+
+    private static final class ProfileHeaderWriter extends OnCommittedResponseWrapper {
+
+        private final RequestProfile profile;
+        private boolean written;
+
+        ProfileHeaderWriter(HttpServletResponse response, RequestProfile profile) {
+            super(response);
+            this.profile = profile;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (written || response.isCommitted()) {
+                return;
+            }
+            written = true;
+            response.setHeader(QUERY_COUNT_HEADER, Integer.toString(profile.getStatementCount()));
+            response.setHeader(SERVER_TIMING_HEADER, serverTiming(profile));
+            long allocated = profile.getAllocatedBytes();
+            if (allocated >= 0) {
+                response.setHeader(ALLOCATED_BYTES_HEADER, Long.toString(allocated));
+            }
+        }
+    }
+}
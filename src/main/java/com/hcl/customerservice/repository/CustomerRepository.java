@@ -1,13 +1,86 @@
 package com.hcl.customerservice.repository;
 
 import com.hcl.customerservice.entity.Customer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
     Optional<Customer> findByEmail(String email);
     boolean existsByEmail(String email);
+    List<Customer> findByEmailIn(Collection<String> emails);
+
+    @Query("select c.email from Customer c where c.email in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("select c.id from Customer c where c.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    // One DELETE instead of existsById + deleteById (which loads the row before removing it).
+    @Modifying
+    @Query("delete from Customer c where c.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    // If-Match on DELETE: the version check and the delete are one statement.
+    @Modifying
+    @Query("delete from Customer c where c.id = :id and c.version = :version")
+    int deleteByIdAndVersionReturningCount(@Param("id") Long id, @Param("version") long version);
+
+    // Conditional GETs: enough to compute an ETag without loading the row.
+    @Query("select c.version from Customer c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Draws its id straight from the sequence: this nextval consumes a sequence value outside
+    // Hibernate's pooled block.
+    @Query(value = "insert into customers (id, name, email) values (nextval('customers_id_seq'), :name, :email) "
+            + "on conflict (email) do update set name = excluded.name, version = customers.version + 1 "
+            + "returning id, version", nativeQuery = true)
+    UpsertedCustomer upsertByEmail(@Param("name") String name, @Param("email") String email);
+
+    // Keyset pagination: List return types skip the count query, the Pageable only supplies the limit.
+    List<Customer> findAllBy(Pageable pageable);
+
+    @Query("select c from Customer c where c.id > :id order by c.id asc")
+    List<Customer> findByIdAfter(@Param("id") long id, Pageable limit);
+
+    @Query("select c from Customer c where c.id < :id order by c.id desc")
+    List<Customer> findByIdBefore(@Param("id") long id, Pageable limit);
+
+    @Query("select c from Customer c where (c.name, c.id) > (:name, :id) order by c.name asc, c.id asc")
+    List<Customer> findByNameAfter(@Param("name") String name, @Param("id") long id, Pageable limit);
+
+    @Query("select c from Customer c where (c.name, c.id) < (:name, :id) order by c.name desc, c.id desc")
+    List<Customer> findByNameBefore(@Param("name") String name, @Param("id") long id, Pageable limit);
+
+    @Query("select c from Customer c where c.email > :email order by c.email asc")
+    List<Customer> findByEmailAfter(@Param("email") String email, Pageable limit);
+
+    @Query("select c from Customer c where c.email < :email order by c.email desc")
+    List<Customer> findByEmailBefore(@Param("email") String email, Pageable limit);
+
+    // Search: lower(...) like matches the expression indexes from V2__customer_search_indexes.sql.
+    // The pattern arrives lower-cased with %, _ and \ escaped; results are keyset-paged on id.
+    @Query("select c from Customer c where lower(c.name) like :pattern escape '\\' and c.id > :id order by c.id asc")
+    List<Customer> searchByName(@Param("pattern") String pattern, @Param("id") long afterId, Pageable limit);
+
+    @Query("select c from Customer c where lower(c.email) like :pattern escape '\\' and c.id > :id order by c.id asc")
+    List<Customer> searchByEmail(@Param("pattern") String pattern, @Param("id") long afterId, Pageable limit);
+
+    @Query("select c from Customer c where (lower(c.name) like :pattern escape '\\' or lower(c.email) like :pattern escape '\\')"
+            + " and c.id > :id order by c.id asc")
+    List<Customer> searchByNameOrEmail(@Param("pattern") String pattern, @Param("id") long afterId, Pageable limit);
+
+    interface UpsertedCustomer {
+        Long getId();
+
+        Long getVersion();
+    }
 }
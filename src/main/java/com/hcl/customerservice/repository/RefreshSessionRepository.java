@@ -0,0 +1,47 @@
+package com.hcl.customerservice.repository;
+
+import com.hcl.customerservice.entity.RefreshSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RefreshSessionRepository extends JpaRepository<RefreshSession, String> {
+
+    // Plain INSERT; save() would merge and SELECT first because the id is assigned.
+    @Transactional
+    @Modifying
+    @Query("insert into RefreshSession (family, tokenId, subject, expiresAt) values (:family, :tokenId, :subject, :expiresAt)")
+    int insert(@Param("family") String family, @Param("tokenId") String tokenId,
+               @Param("subject") String subject, @Param("expiresAt") Instant expiresAt);
+
+    // Compare-and-set on the current token id, so two nodes racing on one refresh token cannot both win.
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.tokenId = :nextId, s.expiresAt = :expiresAt "
+            + "where s.family = :family and s.tokenId = :presentedId and s.revokedUntil is null and s.expiresAt > :now")
+    int rotate(@Param("family") String family, @Param("presentedId") String presentedId,
+               @Param("nextId") String nextId, @Param("expiresAt") Instant expiresAt, @Param("now") Instant now);
+
+    @Query("select count(s) > 0 from RefreshSession s where s.family = :family and s.revokedUntil is null and s.expiresAt > :now")
+    boolean existsLive(@Param("family") String family, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("update RefreshSession s set s.revokedUntil = :until where s.family = :family")
+    int revoke(@Param("family") String family, @Param("until") Instant until);
+
+    @Query("select s.family from RefreshSession s where s.revokedUntil > :now")
+    List<String> findRevokedFamilies(@Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshSession s where s.expiresAt < :now and (s.revokedUntil is null or s.revokedUntil < :now)")
+    int deleteExpired(@Param("now") Instant now);
+}
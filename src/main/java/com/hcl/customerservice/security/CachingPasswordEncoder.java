@@ -0,0 +1,112 @@
+package com.hcl.customerservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Wraps the real (deliberately slow) encoder so that hashing runs on a small bounded executor and
+ * recent successful verifications are remembered for a short time.
+ * <p>
+ * Cache keys are an HMAC, under a key generated at startup, of the stored hash and the presented
+ * password: the cache never holds a password or anything that can be brute-forced offline, an entry
+ * only matches the exact credential that was verified, and it stops matching as soon as the stored
+ * hash changes (password reset or encoding upgrade). Only successes are cached, so wrong guesses
+ * always pay the full hashing cost.
+ */
+public class CachingPasswordEncoder implements PasswordEncoder {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final PasswordEncoder delegate;
+    private final ExecutorService hashingExecutor;
+    private final Cache<String, Boolean> verified;
+    private final SecretKeySpec cacheKey;
+
+    public CachingPasswordEncoder(PasswordEncoder delegate, ExecutorService hashingExecutor,
+                                  long maxSize, Duration ttl) {
+        this.delegate = delegate;
+        this.hashingExecutor = hashingExecutor;
+        this.verified = maxSize > 0
+                ? Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).build()
+                : null;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.cacheKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hash(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        if (verified == null) {
+            return hash(() -> delegate.matches(rawPassword, encodedPassword));
+        }
+        String key = cacheKey(rawPassword, encodedPassword);
+        if (verified.getIfPresent(key) != null) {
+            return true;
+        }
+        boolean matches = hash(() -> delegate.matches(rawPassword, encodedPassword));
+        if (matches) {
+            verified.put(key, Boolean.TRUE);
+        }
+        return matches;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public long cachedVerifications() {
+        return verified == null ? 0 : verified.estimatedSize();
+    }
+
+    private <T> T hash(Callable<T> work) {
+        try {
+            return hashingExecutor.submit(work).get();
+        } catch (RejectedExecutionException ex) {
+            throw new PasswordHashingBusyException("Password hashing queue is full");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Interrupted while hashing password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new AuthenticationServiceException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    private String cacheKey(CharSequence rawPassword, String encodedPassword) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(cacheKey);
+            mac.update(encodedPassword.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(mac.doFinal(rawPassword.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", ex);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.hcl.customerservice.security;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node {@link RefreshTokenStore}. Sessions are lost on restart, which logs everyone out at
+ * their next refresh; use the database store when that matters or when running several instances.
+ */
+public class InMemoryRefreshTokenStore implements RefreshTokenStore {
+
+    private static final long PURGE_INTERVAL_MS = 60_000;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final Map<String, Instant> denied = new ConcurrentHashMap<>();
+    private volatile long nextPurge;
+
+    Clock clock = Clock.systemUTC();
+
+    @Override
+    public void register(String family, String subject, String tokenId, Instant expiresAt) {
+        purgeIfDue();
+        sessions.put(family, new Session(tokenId, expiresAt));
+    }
+
+    @Override
+    public Rotation rotate(String family, String presentedId, String nextId, Instant expiresAt) {
+        Session current = sessions.get(family);
+        if (current == null || !current.expiresAt().isAfter(clock.instant())) {
+            return Rotation.UNKNOWN;
+        }
+        if (!current.tokenId().equals(presentedId)) {
+            return Rotation.STALE;
+        }
+        // Losing the replace means a concurrent refresh consumed the same token first.
+        return sessions.replace(family, current, new Session(nextId, expiresAt)) ? Rotation.ROTATED : Rotation.STALE;
+    }
+
+    @Override
+    public void revoke(String family, Instant deniedUntil) {
+        sessions.remove(family);
+        denied.put(family, deniedUntil);
+    }
+
+    @Override
+    public boolean isRevoked(String family) {
+        Instant until = denied.get(family);
+        return until != null && until.isAfter(clock.instant());
+    }
+
+    private void purgeIfDue() {
+        long now = clock.millis();
+        if (now < nextPurge) {
+            return;
+        }
+        nextPurge = now + PURGE_INTERVAL_MS;
+        Instant cutoff = clock.instant();
+        sessions.values().removeIf(session -> !session.expiresAt().isAfter(cutoff));
+        denied.values().removeIf(until -> !until.isAfter(cutoff));
+    }
+
+    private record Session(String tokenId, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,111 @@
+package com.hcl.customerservice.security;
+
+import com.hcl.customerservice.repository.RefreshSessionRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Database-backed {@link RefreshTokenStore}, shared by every instance. Registration, rotation and
+ * revocation go to the {@code refresh_sessions} table; the denylist check stays in memory. Each
+ * node reloads the set of revoked families every {@code syncInterval}, so a logout on one node
+ * reaches the others within that interval (and immediately on the node that handled it).
+ * <p>
+ * Expired sessions are purged on a separate, much longer {@code purgeInterval}, starting at a
+ * random point within the first interval so replicas do not all issue the same DELETE together.
+ * A purge that finds nothing left to do because another node got there first is cheap.
+ */
+public class JpaRefreshTokenStore implements RefreshTokenStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JpaRefreshTokenStore.class);
+
+    private final RefreshSessionRepository repository;
+    private final ScheduledExecutorService scheduler;
+    private volatile Set<String> revoked = Set.of();
+
+    public JpaRefreshTokenStore(RefreshSessionRepository repository, Duration syncInterval, Duration purgeInterval) {
+        this.repository = repository;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "refresh-token-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::sync, 0, syncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        long purgeMillis = purgeInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::purge, ThreadLocalRandom.current().nextLong(purgeMillis),
+                purgeMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    @Override
+    public void register(String family, String subject, String tokenId, Instant expiresAt) {
+        repository.insert(family, tokenId, subject, expiresAt);
+    }
+
+    @Override
+    public Rotation rotate(String family, String presentedId, String nextId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (repository.rotate(family, presentedId, nextId, expiresAt, now) == 1) {
+            return Rotation.ROTATED;
+        }
+        // Only on the failure path: tells a spent token of a live session from a missing session.
+        return repository.existsLive(family, now) ? Rotation.STALE : Rotation.UNKNOWN;
+    }
+
+    @Override
+    public void revoke(String family, Instant deniedUntil) {
+        repository.revoke(family, deniedUntil);
+        synchronized (this) {
+            Set<String> next = new HashSet<>(revoked);
+            next.add(family);
+            revoked = Set.copyOf(next);
+        }
+    }
+
+    @Override
+    public boolean isRevoked(String family) {
+        return revoked.contains(family);
+    }
+
+    void sync() {
+        try {
+            Instant now = Instant.now();
+            Set<String> before = revoked;
+            Set<String> loaded = new HashSet<>(repository.findRevokedFamilies(now));
+            synchronized (this) {
+                // Keep families revoked on this node while the query ran.
+                for (String family : revoked) {
+                    if (!before.contains(family)) {
+                        loaded.add(family);
+                    }
+                }
+                revoked = Set.copyOf(loaded);
+            }
+        } catch (RuntimeException ex) {
+            // Keep the last known set; the next run retries.
+            logger.warn("Refresh session sync failed: {}", ex.toString());
+        }
+    }
+
+    void purge() {
+        try {
+            int deleted = repository.deleteExpired(Instant.now());
+            logger.debug("Purged {} expired refresh sessions", deleted);
+        } catch (RuntimeException ex) {
+            logger.warn("Refresh session purge failed: {}", ex.toString());
+        }
+    }
+}
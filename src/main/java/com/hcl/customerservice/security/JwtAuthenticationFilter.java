@@ -1,5 +1,6 @@
 package com.hcl.customerservice.security;
 
+import com.hcl.customerservice.logging.LogMarkers;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +8,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -16,8 +21,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.time.Instant;
 
 @Component
+@Profile("!reactive")
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
@@ -28,37 +35,77 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Autowired
+    private RefreshTokenStore tokenStore;
+
+    // When enabled the principal is rebuilt from the token's claims and the user store is not consulted.
+    @Value("${jwt.stateless-principal:false}")
+    private boolean statelessPrincipal;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
         final String authHeader = request.getHeader("Authorization");
         final String token;
-        final String username;
+        final VerifiedToken verified;
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         token = authHeader.substring(7);
         try {
-            username = jwtService.extractUsername(token);
+            verified = resolveToken(token);
         } catch (Exception e) {
-            logger.error("Unable to extract username from token", e);
+            logger.warn(LogMarkers.EXPECTED, "Rejected bearer token: {}", e.toString());
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (isRevokedOrRefresh(verified, tokenStore)) {
+            logger.warn(LogMarkers.EXPECTED, "Rejected bearer token: refresh token or revoked session");
             filterChain.doFilter(request, response);
             return;
         }
 
+        final String username = verified.subject();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-            if (jwtService.validateToken(token, userDetails)) {
+            UserDetails userDetails = statelessPrincipal
+                    ? principalFromClaims(verified)
+                    : userDetailsService.loadUserByUsername(username);
+            if (username.equals(userDetails.getUsername()) && !verified.isExpired(Instant.now())) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             } else {
-                logger.warn("JWT token is invalid or expired");
+                logger.warn(LogMarkers.EXPECTED, "JWT token is invalid or expired");
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Signature and expiry were already checked when the entry was cached, so a hit skips parsing entirely.
+    private VerifiedToken resolveToken(String token) {
+        VerifiedToken verified = tokenCache.get(token);
+        if (verified == null) {
+            verified = jwtService.parseToken(token);
+            tokenCache.put(token, verified);
+        }
+        return verified;
+    }
+
+    // Only refresh tokens and tokens from a logged-out session fail here; a map lookup either way.
+    static boolean isRevokedOrRefresh(VerifiedToken verified, RefreshTokenStore tokenStore) {
+        return verified.isRefreshToken() || (verified.family() != null && tokenStore.isRevoked(verified.family()));
+    }
+
+    static UserDetails principalFromClaims(VerifiedToken verified) {
+        return User.withUsername(verified.subject())
+                .password("")
+                .authorities(AuthorityUtils.createAuthorityList(verified.roles().toArray(new String[0])))
+                .build();
+    }
 }
@@ -0,0 +1,203 @@
+package com.hcl.customerservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.security.Keys;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signing key and verification key set for {@link JwtService}, resolved once at startup.
+ * <p>
+ * With HS256 every token is signed and verified with {@code jwt.secret} and carries no {@code kid}.
+ * With RS256 or ES256 tokens are signed with the private key of the active {@code kid} and verified
+ * with whichever public key their {@code kid} names. Keys come from {@code jwt.keys.location}: one
+ * {@code <kid>.pub.pem} (X.509) per key, plus {@code <kid>.key.pem} (PKCS#8) for the active one.
+ * Retired keys stay as public-only files until the tokens they signed have expired. The public keys
+ * are published as a JWKS document so other services can verify tokens without holding any secret.
+ */
+class JwtKeys extends SigningKeyResolverAdapter {
+
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+    private static final String PRIVATE_SUFFIX = ".key.pem";
+
+    private final SignatureAlgorithm algorithm;
+    private final String activeKid;
+    private final Key signingKey;
+    private final Key hmacKey;
+    private final Map<String, PublicKey> verificationKeys;
+    private final byte[] jwks;
+
+    private JwtKeys(SignatureAlgorithm algorithm, String activeKid, Key signingKey, Key hmacKey,
+                    Map<String, PublicKey> verificationKeys) {
+        this.algorithm = algorithm;
+        this.activeKid = activeKid;
+        this.signingKey = signingKey;
+        this.hmacKey = hmacKey;
+        this.verificationKeys = Collections.unmodifiableMap(verificationKeys);
+        this.jwks = renderJwks(algorithm, verificationKeys);
+    }
+
+    static JwtKeys hmac(String secret) {
+        Key key = Keys.hmacShaKeyFor(secret.getBytes());
+        return new JwtKeys(SignatureAlgorithm.HS256, null, key, key, Map.of());
+    }
+
+    /**
+     * Loads the key set for an asymmetric algorithm. Without a key location a key pair is generated
+     * for this process only: fine for development, but tokens stop verifying after a restart and
+     * differ between instances.
+     */
+    static JwtKeys asymmetric(SignatureAlgorithm algorithm, String location, String activeKid) {
+        if (location == null || location.isBlank()) {
+            KeyPair pair = Keys.keyPairFor(algorithm);
+            String kid = UUID.randomUUID().toString();
+            return new JwtKeys(algorithm, kid, pair.getPrivate(), null, Map.of(kid, pair.getPublic()));
+        }
+        Path directory = Path.of(location);
+        Map<String, PublicKey> publicKeys = new LinkedHashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + PUBLIC_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                publicKeys.put(name.substring(0, name.length() - PUBLIC_SUFFIX.length()), readPublicKey(file, algorithm));
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read JWT keys from " + directory, ex);
+        }
+        if (activeKid == null || activeKid.isBlank() || !publicKeys.containsKey(activeKid)) {
+            throw new IllegalStateException("jwt.keys.active '" + activeKid + "' has no " + PUBLIC_SUFFIX
+                    + " file in " + directory + "; found " + publicKeys.keySet());
+        }
+        PrivateKey signingKey = readPrivateKey(directory.resolve(activeKid + PRIVATE_SUFFIX), algorithm);
+        return new JwtKeys(algorithm, activeKid, signingKey, null, publicKeys);
+    }
+
+    SignatureAlgorithm algorithm() {
+        return algorithm;
+    }
+
+    String activeKid() {
+        return activeKid;
+    }
+
+    Key signingKey() {
+        return signingKey;
+    }
+
+    byte[] jwks() {
+        return jwks;
+    }
+
+    // Called by the (single, prebuilt) parser for every token: one map lookup, no key parsing.
+    @Override
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            if (hmacKey == null) {
+                throw new UnsupportedJwtException("Token has no kid");
+            }
+            return hmacKey;
+        }
+        Key key = verificationKeys.get(kid);
+        if (key == null) {
+            throw new UnsupportedJwtException("Unknown signing key " + kid);
+        }
+        return key;
+    }
+
+    private static PublicKey readPublicKey(Path file, SignatureAlgorithm algorithm) {
+        try {
+            return keyFactory(algorithm).generatePublic(new X509EncodedKeySpec(pem(file)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Not a " + algorithm.getFamilyName() + " public key: " + file, ex);
+        }
+    }
+
+    private static PrivateKey readPrivateKey(Path file, SignatureAlgorithm algorithm) {
+        try {
+            return keyFactory(algorithm).generatePrivate(new PKCS8EncodedKeySpec(pem(file)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Not a PKCS#8 " + algorithm.getFamilyName() + " private key: " + file, ex);
+        }
+    }
+
+    private static KeyFactory keyFactory(SignatureAlgorithm algorithm) throws GeneralSecurityException {
+        return KeyFactory.getInstance(algorithm.isRsa() ? "RSA" : "EC");
+    }
+
+    private static byte[] pem(Path file) {
+        try {
+            String body = Files.readString(file, StandardCharsets.US_ASCII)
+                    .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                    .replaceAll("\\s", "");
+            return Base64.getDecoder().decode(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Cannot read " + file, ex);
+        }
+    }
+
+    // Built once; the keys only change on restart.
+    private static byte[] renderJwks(SignatureAlgorithm algorithm, Map<String, PublicKey> keys) {
+        StringBuilder json = new StringBuilder("{\"keys\":[");
+        boolean first = true;
+        for (Map.Entry<String, PublicKey> entry : keys.entrySet()) {
+            if (!first) {
+                json.append(',');
+            }
+            first = false;
+            json.append("{\"kid\":\"").append(entry.getKey())
+                    .append("\",\"use\":\"sig\",\"alg\":\"").append(algorithm.getValue()).append('"');
+            if (entry.getValue() instanceof RSAPublicKey rsa) {
+                json.append(",\"kty\":\"RSA\",\"n\":\"").append(base64Url(rsa.getModulus(), 0))
+                        .append("\",\"e\":\"").append(base64Url(rsa.getPublicExponent(), 0)).append('"');
+            } else if (entry.getValue() instanceof ECPublicKey ec) {
+                int size = (ec.getParams().getCurve().getField().getFieldSize() + 7) / 8;
+                json.append(",\"kty\":\"EC\",\"crv\":\"P-").append(ec.getParams().getCurve().getField().getFieldSize())
+                        .append("\",\"x\":\"").append(base64Url(ec.getW().getAffineX(), size))
+                        .append("\",\"y\":\"").append(base64Url(ec.getW().getAffineY(), size)).append('"');
+            }
+            json.append('}');
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Unsigned big-endian, left-padded to {@code length} bytes when given (EC coordinates).
+    private static String base64Url(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            byte[] trimmed = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, trimmed, 0, trimmed.length);
+            bytes = trimmed;
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
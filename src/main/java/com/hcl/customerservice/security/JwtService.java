@@ -1,47 +1,163 @@
 package com.hcl.customerservice.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtService.class);
+
+    private static final String USE_CLAIM = "token_use";
+    private static final String FAMILY_CLAIM = "fam";
+
     @Value("${jwt.secret}")
-    private String secret;
+    String secret;
 
+    // Access token lifetime in ms.
     @Value("${jwt.expiration}")
-    private long expiration;
+    long expiration;
+
+    @Value("${jwt.refresh.expiration:1209600000}")
+    long refreshExpiration = 1209600000L;
+
+    // HS256 signs with jwt.secret; RS256/ES256 sign with the active key from jwt.keys.location.
+    @Value("${jwt.algorithm:HS256}")
+    String algorithm = "HS256";
+
+    @Value("${jwt.keys.location:}")
+    String keyLocation;
 
-    private Key key;
+    @Value("${jwt.keys.active:}")
+    String activeKid;
+
+    private JwtKeys keys;
+
+    // JwtParser is immutable and thread-safe; build it once instead of per call. Verification keys
+    // are looked up by kid from the prebuilt key set, not parsed per token.
+    private JwtParser parser;
+
+    // Falls back to the global (no-op until something is added to it) registry outside Spring.
+    @Autowired(required = false)
+    MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Timer generateTimer;
+    private Timer parseValidTimer;
+    private Timer parseExpiredTimer;
+    private Timer parseInvalidTimer;
 
     @PostConstruct
     public void init() {
-        this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        SignatureAlgorithm signatureAlgorithm = SignatureAlgorithm.forName(algorithm);
+        if (signatureAlgorithm == SignatureAlgorithm.HS256) {
+            this.keys = JwtKeys.hmac(secret);
+        } else if (signatureAlgorithm == SignatureAlgorithm.RS256 || signatureAlgorithm == SignatureAlgorithm.ES256) {
+            this.keys = JwtKeys.asymmetric(signatureAlgorithm, keyLocation, activeKid);
+            if (keyLocation == null || keyLocation.isBlank()) {
+                logger.warn("jwt.keys.location is not set; signing with a key generated for this process only");
+            }
+        } else {
+            throw new IllegalStateException("Unsupported jwt.algorithm " + algorithm + "; use HS256, RS256 or ES256");
+        }
+        this.parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keys)
+                .build();
+        this.generateTimer = Timer.builder("jwt.generate")
+                .description("Time to build and sign a JWT")
+                .register(meterRegistry);
+        this.parseValidTimer = parseTimer("valid");
+        this.parseExpiredTimer = parseTimer("expired");
+        this.parseInvalidTimer = parseTimer("invalid");
     }
 
-    public String generateToken(UserDetails userDetails) {
-        return Jwts.builder()
-                .setSubject(userDetails.getUsername())
-                .claim("roles", userDetails.getAuthorities())
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(key, SignatureAlgorithm.HS256)
-                .compact();
+    /**
+     * Signs a token of the given use ({@link VerifiedToken#ACCESS} or {@link VerifiedToken#REFRESH})
+     * bound to a login session ({@code family}).
+     */
+    public String generateToken(String subject, List<String> roles, String use, String tokenId,
+                                String family, Instant expiresAt) {
+        long start = System.nanoTime();
+        try {
+            return Jwts.builder()
+                    .setSubject(subject)
+                    .setId(tokenId)
+                    .claim("roles", roles)
+                    .claim(USE_CLAIM, use)
+                    .claim(FAMILY_CLAIM, family)
+                    .setIssuedAt(new Date())
+                    .setExpiration(Date.from(expiresAt))
+                    .setHeaderParam(JwsHeader.KEY_ID, keys.activeKid())
+                    .signWith(keys.signingKey(), keys.algorithm())
+                    .compact();
+        } finally {
+            generateTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Public verification keys as a JWKS document (empty for HS256), serialized once at startup.
+     */
+    public byte[] getJwks() {
+        return keys.jwks();
+    }
+
+    public Duration getAccessTokenTtl() {
+        return Duration.ofMillis(expiration);
+    }
+
+    public Duration getRefreshTokenTtl() {
+        return Duration.ofMillis(refreshExpiration);
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final VerifiedToken verified;
+        try {
+            verified = parseToken(token);
+        } catch (ExpiredJwtException ex) {
+            return false;
+        }
+        return (verified.subject().equals(userDetails.getUsername()) && !verified.isExpired(Instant.now()));
+    }
+
+    /**
+     * Parses and verifies the token once, returning subject, roles and expiry together.
+     * Throws the usual {@link io.jsonwebtoken.JwtException} subtypes on a bad or expired token.
+     */
+    public VerifiedToken parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                claims.getSubject(),
+                extractRoles(claims),
+                claims.getExpiration().toInstant(),
+                claims.getId(),
+                claims.get(FAMILY_CLAIM, String.class),
+                claims.get(USE_CLAIM, String.class)
+        );
     }
 
     public String extractUsername(String token) {
@@ -58,14 +174,41 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        long start = System.nanoTime();
+        Timer timer = parseInvalidTimer;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            timer = parseValidTimer;
+            return claims;
+        } catch (ExpiredJwtException ex) {
+            timer = parseExpiredTimer;
+            throw ex;
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer parseTimer(String outcome) {
+        return Timer.builder("jwt.parse")
+                .description("Time to parse and verify a JWT signature")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    // Authorities are serialized by Jackson as [{"authority":"ROLE_X"}]; accept plain strings too.
+    private static List<String> extractRoles(Claims claims) {
+        Object raw = claims.get("roles");
+        if (!(raw instanceof Collection<?> values)) {
+            return Collections.emptyList();
+        }
+        List<String> roles = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value instanceof Map<?, ?> map && map.get("authority") != null) {
+                roles.add(map.get("authority").toString());
+            } else if (value instanceof String role) {
+                roles.add(role);
+            }
+        }
+        return Collections.unmodifiableList(roles);
     }
 }
@@ -0,0 +1,66 @@
+package com.hcl.customerservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Password encoding shared by the servlet and reactive security configurations.
+ * <p>
+ * Hashes are stored with an {@code {id}} prefix. New hashes use {@code customer.login.encoder};
+ * a stored hash with another id, or a bcrypt hash below the configured strength, is re-encoded
+ * after the next successful login (see the password services wired into the authentication managers).
+ */
+@Configuration
+public class PasswordEncoderConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder(@Value("${customer.login.encoder:bcrypt}") String encoderId,
+                                           @Value("${customer.login.bcrypt-strength:10}") int bcryptStrength,
+                                           @Value("${customer.login.pbkdf2-iterations:310000}") int pbkdf2Iterations,
+                                           @Value("${customer.login.verification-cache.max-size:10000}") long cacheSize,
+                                           @Value("${customer.login.verification-cache.ttl:5m}") Duration cacheTtl,
+                                           ExecutorService passwordHashingExecutor) {
+        return new CachingPasswordEncoder(
+                delegatingEncoder(encoderId, bcryptStrength, pbkdf2Iterations),
+                passwordHashingExecutor, cacheSize, cacheTtl);
+    }
+
+    // Hashing is CPU-bound; a login storm queues here instead of competing with customer reads
+    // for every core. A full queue fails fast with PasswordHashingBusyException.
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService passwordHashingExecutor(@Value("${customer.login.hashing.threads:2}") int threads,
+                                                   @Value("${customer.login.hashing.queue-capacity:50}") int queueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    static DelegatingPasswordEncoder delegatingEncoder(String encoderId, int bcryptStrength, int pbkdf2Iterations) {
+        Map<String, PasswordEncoder> encoders = Map.of(
+                "bcrypt", new BCryptPasswordEncoder(bcryptStrength),
+                "pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+                        Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+        if (!encoders.containsKey(encoderId)) {
+            throw new IllegalArgumentException("Unknown password encoder '" + encoderId + "', expected one of " + encoders.keySet());
+        }
+        return new DelegatingPasswordEncoder(encoderId, encoders);
+    }
+}
@@ -0,0 +1,14 @@
+package com.hcl.customerservice.security;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+/**
+ * The hashing executor's queue is full. Login endpoints answer 503 so clients back off instead of
+ * piling more work onto the CPU.
+ */
+public class PasswordHashingBusyException extends AuthenticationServiceException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,111 @@
+package com.hcl.customerservice.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsPasswordService;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * WebFlux counterpart of {@link SecurityConfig}: stateless bearer-token authentication with the same
+ * public paths and 401 behaviour. Principals are always rebuilt from the token claims (as with
+ * jwt.stateless-principal) because a per-request user-store lookup would block the event loop.
+ */
+@Configuration
+@Profile("reactive")
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    @Bean
+    public ReactiveUserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
+        return new MapReactiveUserDetailsService(SecurityConfig.defaultUsers(passwordEncoder));
+    }
+
+    // Password checks run on boundedElastic inside this manager, off the event loop, and from there
+    // on the password hashing executor (see PasswordEncoderConfig).
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager(ReactiveUserDetailsService userDetailsService,
+                                                               PasswordEncoder passwordEncoder) {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService);
+        manager.setPasswordEncoder(passwordEncoder);
+        if (userDetailsService instanceof ReactiveUserDetailsPasswordService passwordService) {
+            manager.setUserDetailsPasswordService(passwordService);
+        }
+        return manager;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http,
+                                                         JwtService jwtService,
+                                                         VerifiedTokenCache tokenCache,
+                                                         RefreshTokenStore tokenStore) {
+        // The converter does the verification; the token it yields is already authenticated.
+        AuthenticationWebFilter jwtFilter = new AuthenticationWebFilter((ReactiveAuthenticationManager) Mono::just);
+        jwtFilter.setServerAuthenticationConverter(exchange -> Mono.justOrEmpty(bearerToken(exchange.getRequest()))
+                .flatMap(token -> Mono.fromCallable(() -> verify(token, jwtService, tokenCache, tokenStore)))
+                // An unusable token yields no authentication rather than an error, matching the servlet
+                // filter: the request carries on anonymously and only protected paths answer 401.
+                .onErrorResume(ex -> Mono.empty()));
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(auth -> auth
+                        .pathMatchers(HttpMethod.POST, "/api/v1/auth/login", "/api/v1/auth/refresh", "/api/v1/auth/logout").permitAll()
+                        .pathMatchers("/swagger-ui.html", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        .pathMatchers("/actuator/health/**", "/actuator/prometheus", "/.well-known/jwks.json").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .exceptionHandling(ex -> ex
+                        .authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED))
+                )
+                .addFilterAt(jwtFilter, SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    private static Authentication verify(String token, JwtService jwtService, VerifiedTokenCache tokenCache,
+                                         RefreshTokenStore tokenStore) {
+        VerifiedToken verified = tokenCache.get(token);
+        if (verified == null) {
+            verified = jwtService.parseToken(token);
+            tokenCache.put(token, verified);
+        }
+        if (verified.subject() == null || verified.isExpired(Instant.now())
+                || JwtAuthenticationFilter.isRevokedOrRefresh(verified, tokenStore)) {
+            return null;
+        }
+        UserDetails principal = JwtAuthenticationFilter.principalFromClaims(verified);
+        return new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+    }
+
+    private static String bearerToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst("Authorization");
+        return header != null && header.startsWith(BEARER_PREFIX) ? header.substring(BEARER_PREFIX.length()) : null;
+    }
+}
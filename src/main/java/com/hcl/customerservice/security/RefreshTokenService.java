@@ -0,0 +1,132 @@
+package com.hcl.customerservice.security;
+
+import com.hcl.customerservice.logging.LogMarkers;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Issues short-lived access tokens paired with long-lived, single-use refresh tokens.
+ * <p>
+ * A login starts a token family. Each refresh consumes the presented refresh token and returns a
+ * new pair in the same family. Presenting a refresh token that was already consumed means it was
+ * copied, so the whole family is revoked: the legitimate client and the copy both have to log in
+ * again, and the family's outstanding access tokens stop working at once. A refresh token whose
+ * session the store does not know (lost in a restart of the in-memory store, expired, or already
+ * revoked) is only rejected. Refreshed access tokens carry the roles from the refresh token; role
+ * changes apply from the next login.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    @Autowired
+    JwtService jwtService;
+
+    @Autowired
+    RefreshTokenStore store;
+
+    @Autowired(required = false)
+    MeterRegistry meterRegistry = Metrics.globalRegistry;
+
+    private Counter issuedByPassword;
+    private Counter issuedByRefresh;
+    private Counter reuseDetected;
+
+    @PostConstruct
+    public void init() {
+        this.issuedByPassword = issuedCounter("password");
+        this.issuedByRefresh = issuedCounter("refresh_token");
+        this.reuseDetected = Counter.builder("auth.refresh.reuse")
+                .description("Refresh tokens presented after they were already used; the family is revoked")
+                .register(meterRegistry);
+    }
+
+    public TokenPair issue(UserDetails user) {
+        String family = UUID.randomUUID().toString();
+        List<String> roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        String refreshId = UUID.randomUUID().toString();
+        Instant refreshExpiry = Instant.now().plus(jwtService.getRefreshTokenTtl());
+        store.register(family, user.getUsername(), refreshId, refreshExpiry);
+        issuedByPassword.increment();
+        return pair(user.getUsername(), roles, family, refreshId, refreshExpiry);
+    }
+
+    /**
+     * Exchanges a refresh token for a new pair. Throws {@link BadCredentialsException} if the token
+     * is invalid, expired, revoked or already used.
+     */
+    public TokenPair refresh(String refreshToken) {
+        VerifiedToken presented = verifyRefreshToken(refreshToken);
+        if (store.isRevoked(presented.family())) {
+            throw new BadCredentialsException("Refresh token family revoked");
+        }
+        String nextId = UUID.randomUUID().toString();
+        Instant nextExpiry = Instant.now().plus(jwtService.getRefreshTokenTtl());
+        RefreshTokenStore.Rotation rotation = store.rotate(presented.family(), presented.tokenId(), nextId, nextExpiry);
+        if (rotation == RefreshTokenStore.Rotation.UNKNOWN) {
+            throw new BadCredentialsException("Refresh session not found");
+        }
+        if (rotation == RefreshTokenStore.Rotation.STALE) {
+            store.revoke(presented.family(), deniedUntil());
+            reuseDetected.increment();
+            logger.warn(LogMarkers.EXPECTED, "Refresh token reuse for user {}, revoked its sessions", presented.subject());
+            throw new BadCredentialsException("Refresh token already used");
+        }
+        issuedByRefresh.increment();
+        return pair(presented.subject(), presented.roles(), presented.family(), nextId, nextExpiry);
+    }
+
+    /**
+     * Logs out the session the refresh token belongs to, including its access tokens.
+     */
+    public void revoke(String refreshToken) {
+        store.revoke(verifyRefreshToken(refreshToken).family(), deniedUntil());
+    }
+
+    private TokenPair pair(String subject, List<String> roles, String family, String refreshId, Instant refreshExpiry) {
+        String access = jwtService.generateToken(subject, roles, VerifiedToken.ACCESS, UUID.randomUUID().toString(),
+                family, Instant.now().plus(jwtService.getAccessTokenTtl()));
+        String refresh = jwtService.generateToken(subject, roles, VerifiedToken.REFRESH, refreshId, family, refreshExpiry);
+        return new TokenPair(access, refresh, jwtService.getAccessTokenTtl());
+    }
+
+    private VerifiedToken verifyRefreshToken(String refreshToken) {
+        VerifiedToken verified;
+        try {
+            verified = jwtService.parseToken(refreshToken);
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new BadCredentialsException("Invalid refresh token", ex);
+        }
+        if (!verified.isRefreshToken() || verified.family() == null || verified.tokenId() == null) {
+            throw new BadCredentialsException("Not a refresh token");
+        }
+        return verified;
+    }
+
+    // Access tokens issued just before the revocation are the last ones that need denying.
+    private Instant deniedUntil() {
+        return Instant.now().plus(jwtService.getAccessTokenTtl());
+    }
+
+    private Counter issuedCounter(String grant) {
+        return Counter.builder("auth.tokens.issued")
+                .description("Token pairs issued, by grant type")
+                .tag("grant", grant)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,37 @@
+package com.hcl.customerservice.security;
+
+import java.time.Instant;
+
+/**
+ * Server-side state for refresh-token rotation. Each login starts a session ("family") whose only
+ * valid refresh token is the most recently issued one. Revoked families double as the access-token
+ * denylist: access tokens carry their family id, and {@link #isRevoked} is consulted on every
+ * authenticated request, so implementations must answer it from memory.
+ */
+public interface RefreshTokenStore {
+
+    void register(String family, String subject, String tokenId, Instant expiresAt);
+
+    /**
+     * Atomically replaces the family's current refresh token. Returns {@link Rotation#STALE} if the
+     * family is live but {@code presentedId} is not its current token (already used), and
+     * {@link Rotation#UNKNOWN} if the family is unknown, expired or revoked.
+     */
+    Rotation rotate(String family, String presentedId, String nextId, Instant expiresAt);
+
+    /**
+     * Ends the session and denies its access tokens until {@code deniedUntil}, which only needs
+     * to outlive the longest access token the family can still have in circulation.
+     */
+    void revoke(String family, Instant deniedUntil);
+
+    boolean isRevoked(String family);
+
+    enum Rotation {
+        ROTATED,
+        /** A live family's earlier token: it was copied, or two clients raced on it. */
+        STALE,
+        /** No live session, e.g. lost in a restart of the in-memory store. Not evidence of reuse. */
+        UNKNOWN
+    }
+}
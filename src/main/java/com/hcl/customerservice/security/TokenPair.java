@@ -0,0 +1,6 @@
+package com.hcl.customerservice.security;
+
+import java.time.Duration;
+
+public record TokenPair(String accessToken, String refreshToken, Duration accessTokenTtl) {
+}
@@ -0,0 +1,29 @@
+package com.hcl.customerservice.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Result of a single parse-and-verify pass over a JWT: everything the
+ * request path needs from the token without touching it again.
+ * {@code family} is the login session the token belongs to (see {@link RefreshTokenService});
+ * tokens issued before refresh support carry no id, family or use.
+ */
+public record VerifiedToken(String subject, List<String> roles, Instant expiresAt,
+                            String tokenId, String family, String use) {
+
+    public static final String ACCESS = "access";
+    public static final String REFRESH = "refresh";
+
+    public VerifiedToken(String subject, List<String> roles, Instant expiresAt) {
+        this(subject, roles, expiresAt, null, null, null);
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+
+    public boolean isRefreshToken() {
+        return REFRESH.equals(use);
+    }
+}
@@ -0,0 +1,94 @@
+package com.hcl.customerservice.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bounded cache of tokens that already passed signature verification.
+ * Entries are keyed by a SHA-256 digest of the raw token, so the cache never
+ * holds bearer credentials, and are dropped once the token's {@code exp} passes.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, VerifiedToken> entries = new ConcurrentHashMap<>();
+
+    @Value("${jwt.cache.enabled:true}")
+    boolean enabled = true;
+
+    @Value("${jwt.cache.max-size:10000}")
+    int maxSize = 10000;
+
+    Clock clock = Clock.systemUTC();
+
+    public VerifiedToken get(String token) {
+        if (!enabled) {
+            return null;
+        }
+        String key = digest(token);
+        VerifiedToken cached = entries.get(key);
+        if (cached == null) {
+            return null;
+        }
+        if (cached.isExpired(clock.instant())) {
+            entries.remove(key, cached);
+            return null;
+        }
+        return cached;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (!enabled || verified.isExpired(clock.instant())) {
+            return;
+        }
+        if (entries.size() >= maxSize) {
+            evict();
+        }
+        entries.put(digest(token), verified);
+    }
+
+    public void invalidate(String token) {
+        entries.remove(digest(token));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    private void evict() {
+        Instant now = clock.instant();
+        entries.values().removeIf(entry -> entry.isExpired(now));
+        // Still full of live tokens: drop arbitrary entries down to 90% so we
+        // don't pay a full sweep on every subsequent put.
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<String> it = entries.keySet().iterator();
+        while (entries.size() > target && it.hasNext()) {
+            it.next();
+            it.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            byte[] hash = md.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
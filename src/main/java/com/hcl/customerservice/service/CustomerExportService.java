@@ -0,0 +1,13 @@
+package com.hcl.customerservice.service;
+
+import com.hcl.customerservice.dto.CustomerFileFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface CustomerExportService {
+    /**
+     * Streams every customer, ordered by id, to {@code out}. Returns the number of rows written.
+     */
+    long exportCustomers(CustomerFileFormat format, OutputStream out) throws IOException;
+}
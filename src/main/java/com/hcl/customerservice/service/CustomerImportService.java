@@ -0,0 +1,17 @@
+package com.hcl.customerservice.service;
+
+import com.hcl.customerservice.dto.CustomerFileFormat;
+import com.hcl.customerservice.dto.ImportJobStatus;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface CustomerImportService {
+    /**
+     * Spools {@code body} to disk and queues it for processing; returns immediately with the job id.
+     */
+    ImportJobStatus startImport(CustomerFileFormat format, InputStream body) throws IOException;
+    ImportJobStatus getStatus(String jobId);
+    Path getRejectFile(String jobId);
+}
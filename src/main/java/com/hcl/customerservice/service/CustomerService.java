@@ -1,14 +1,30 @@
 package com.hcl.customerservice.service;
 
+import com.hcl.customerservice.dto.BatchResponse;
+import com.hcl.customerservice.dto.CustomerBatchUpdateRequest;
 import com.hcl.customerservice.dto.CustomerRequest;
 import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerSearchField;
+import com.hcl.customerservice.dto.CustomerSearchMode;
+import com.hcl.customerservice.dto.CursorPage;
+import com.hcl.customerservice.util.CustomerCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface CustomerService {
     CustomerResponse createCustomer(CustomerRequest request);
     CustomerResponse getCustomerById(Long id);
+    long getCustomerVersion(Long id);
     Page<CustomerResponse> getAllCustomers(Pageable pageable);
-    CustomerResponse updateCustomer(Long id, CustomerRequest request);
-    void deleteCustomer(Long id);
+    CursorPage<CustomerResponse> getCustomersAfter(String cursor, int size, CustomerCursor.SortKey sortKey, boolean descending);
+    CursorPage<CustomerResponse> searchCustomers(String query, CustomerSearchField field, CustomerSearchMode mode, String cursor, int size);
+    // expectedVersion: from If-Match; null updates or deletes whatever version is current.
+    CustomerResponse updateCustomer(Long id, CustomerRequest request, Long expectedVersion);
+    void deleteCustomer(Long id, Long expectedVersion);
+    CustomerResponse upsertCustomerByEmail(CustomerRequest request);
+    BatchResponse createCustomers(List<CustomerRequest> requests);
+    BatchResponse updateCustomers(List<CustomerBatchUpdateRequest> requests);
+    BatchResponse deleteCustomers(List<Long> ids);
 }
@@ -0,0 +1,14 @@
+package com.hcl.customerservice.service;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+
+import java.util.List;
+
+public interface CustomerTypeaheadService {
+    /**
+     * Customers whose name words or email start with the words of {@code query}. Served from the
+     * in-memory index without a database round trip once it is loaded; until then, or when the
+     * index is disabled, from the database prefix search.
+     */
+    List<CustomerResponse> suggest(String query, int limit);
+}
@@ -0,0 +1,21 @@
+package com.hcl.customerservice.service;
+
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link CustomerService}; same semantics and exceptions, signalled
+ * through the returned publishers.
+ */
+public interface ReactiveCustomerService {
+    Mono<CustomerResponse> createCustomer(CustomerRequest request);
+    Mono<CustomerResponse> getCustomerById(Long id);
+    Mono<Page<CustomerResponse>> getAllCustomers(Pageable pageable);
+    Flux<CustomerResponse> streamCustomers();
+    Mono<CustomerResponse> updateCustomer(Long id, CustomerRequest request);
+    Mono<Void> deleteCustomer(Long id);
+}
@@ -0,0 +1,112 @@
+package com.hcl.customerservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcl.customerservice.dto.CustomerFileFormat;
+import com.hcl.customerservice.service.CustomerExportService;
+import com.hcl.customerservice.util.CsvSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Writes the customers table straight from a forward-only JDBC cursor to the output stream,
+ * bypassing the persistence context and the DTO mapper so memory stays flat regardless of row count.
+ */
+@Service
+@Profile("!reactive")
+public class CustomerExportServiceImpl implements CustomerExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerExportServiceImpl.class);
+
+    private static final String EXPORT_SQL = "select id, name, email from customers order by id";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CustomerExportServiceImpl(DataSource dataSource,
+                                     ObjectMapper objectMapper,
+                                     @Value("${customer.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.objectMapper = objectMapper;
+    }
+
+    // PgJDBC only honours the fetch size (server-side cursor) with autocommit off, hence the transaction.
+    @Override
+    @Transactional(readOnly = true)
+    public long exportCustomers(CustomerFileFormat format, OutputStream out) throws IOException {
+        long rows;
+        try {
+            rows = format == CustomerFileFormat.CSV ? writeCsv(out) : writeNdjson(out);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        logger.info("Exported {} customers as {}", rows, format);
+        return rows;
+    }
+
+    private long writeNdjson(OutputStream out) throws IOException {
+        long[] count = {0};
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            jdbcTemplate.query(EXPORT_SQL, (ResultSet rs) -> {
+                try {
+                    generator.writeStartObject();
+                    generator.writeNumberField("id", rs.getLong(1));
+                    generator.writeStringField("name", rs.getString(2));
+                    generator.writeStringField("email", rs.getString(3));
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    count[0]++;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+        return count[0];
+    }
+
+    private long writeCsv(OutputStream out) throws IOException {
+        long[] count = {0};
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write("id,name,email\n");
+        jdbcTemplate.query(EXPORT_SQL, (ResultSet rs) -> {
+            try {
+                writeCsvRow(writer, rs);
+                count[0]++;
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        writer.flush();
+        return count[0];
+    }
+
+    private static void writeCsvRow(Writer writer, ResultSet rs) throws IOException, SQLException {
+        writer.write(Long.toString(rs.getLong(1)));
+        writer.write(',');
+        CsvSupport.writeField(writer, rs.getString(2));
+        writer.write(',');
+        CsvSupport.writeField(writer, rs.getString(3));
+        writer.write('\n');
+    }
+}
@@ -0,0 +1,420 @@
+package com.hcl.customerservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcl.customerservice.dto.CustomerFileFormat;
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.ImportJobStatus;
+import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.exception.EmailAlreadyExistsException;
+import com.hcl.customerservice.exception.ImportJobNotFoundException;
+import com.hcl.customerservice.mapper.CustomerMapper;
+import com.hcl.customerservice.repository.CustomerRepository;
+import com.hcl.customerservice.service.CustomerImportService;
+import com.hcl.customerservice.invalidation.CustomerChangePublisher;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import com.hcl.customerservice.util.CsvSupport;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Streaming bulk import. The upload is spooled to a temp file, then read line by line on a
+ * dedicated executor and written in fixed-size transactions. Memory is bounded by the batch size:
+ * duplicates inside a batch are caught with a per-batch set, duplicates against earlier batches
+ * or existing rows are caught by one email lookup per batch against the already-committed data.
+ */
+@Service
+@Profile("!reactive")
+public class CustomerImportServiceImpl implements CustomerImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerImportServiceImpl.class);
+
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    private final CustomerRepository repository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CustomerTypeaheadIndex typeahead;
+    private final CustomerChangePublisher changes;
+    private final ExecutorService executor;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    @Value("${customer.import.batch-size:1000}")
+    private int batchSize = 1000;
+
+    public CustomerImportServiceImpl(CustomerRepository repository,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager,
+                                     CustomerTypeaheadIndex typeahead,
+                                     CustomerChangePublisher changes,
+                                     @Value("${customer.import.concurrency:1}") int concurrency,
+                                     @Value("${customer.import.queue-capacity:10}") int queueCapacity) {
+        this.repository = repository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.typeahead = typeahead;
+        this.changes = changes;
+        // Imports are long-running and write-heavy; keep them off the request threads and cap how
+        // many run at once so they cannot monopolise the connection pool.
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(concurrency, concurrency, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "customer-import-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public ImportJobStatus startImport(CustomerFileFormat format, InputStream body) throws IOException {
+        String jobId = UUID.randomUUID().toString();
+        Path upload = Files.createTempFile("customer-import-" + jobId, ".upload");
+        Files.copy(body, upload, StandardCopyOption.REPLACE_EXISTING);
+        ImportJob job = new ImportJob(jobId, format, upload,
+                Files.createTempFile("customer-import-" + jobId, "-rejects.csv"));
+        register(job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            job.fail("Import queue is full, retry later");
+            Files.deleteIfExists(upload);
+        }
+        return job.toStatus();
+    }
+
+    @Override
+    public ImportJobStatus getStatus(String jobId) {
+        return job(jobId).toStatus();
+    }
+
+    @Override
+    public Path getRejectFile(String jobId) {
+        return job(jobId).rejectFile;
+    }
+
+    void run(ImportJob job) {
+        job.state = ImportJobStatus.State.RUNNING;
+        job.startedAt = Instant.now();
+        try (BufferedReader reader = Files.newBufferedReader(job.upload, StandardCharsets.UTF_8);
+             Writer rejects = Files.newBufferedWriter(job.rejectFile, StandardCharsets.UTF_8)) {
+            rejects.write("line,reason,record\n");
+            RowParser parser = job.format == CustomerFileFormat.CSV ? new CsvRowParser() : new NdjsonRowParser();
+            List<ParsedRow> batch = new ArrayList<>(batchSize);
+            Set<String> batchEmails = new HashSet<>();
+            String line;
+            long lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank() || parser.consumeHeader(line, lineNumber)) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                ParsedRow row = new ParsedRow(lineNumber, line);
+                try {
+                    row.request = parser.parse(line);
+                } catch (IllegalArgumentException | JsonProcessingException ex) {
+                    row.request = null;
+                }
+                if (row.request == null) {
+                    reject(job, rejects, row, "Unparseable record");
+                    continue;
+                }
+                String violation = firstViolation(row.request);
+                if (violation != null) {
+                    reject(job, rejects, row, violation);
+                } else if (!batchEmails.add(row.request.getEmail())) {
+                    reject(job, rejects, row, "Duplicate email in file: " + row.request.getEmail());
+                } else {
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        writeBatch(job, rejects, batch);
+                        batch.clear();
+                        batchEmails.clear();
+                    }
+                }
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(job, rejects, batch);
+            }
+            // The reject file is downloadable as soon as the job reports completed.
+            rejects.flush();
+            job.complete();
+            logger.info("Import {} finished: {} imported, {} rejected", job.id, job.imported.get(), job.rejected.get());
+        } catch (IOException | RuntimeException ex) {
+            // Anything else (a database error other than a lost email race, a transaction timeout, a
+            // validator or parser bug) must still end the job, or its status stays RUNNING forever.
+            // The reader and reject writer are already closed by the try-with-resources at this point.
+            job.fail(ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName());
+            logger.error("Import {} failed", job.id, ex);
+        } finally {
+            try {
+                Files.deleteIfExists(job.upload);
+            } catch (IOException ex) {
+                logger.warn("Could not delete import spool file {}", job.upload);
+            }
+        }
+    }
+
+    private void writeBatch(ImportJob job, Writer rejects, List<ParsedRow> batch) throws IOException {
+        List<ParsedRow> rejected = new ArrayList<>();
+        try {
+            Integer inserted = transactionTemplate.execute(status -> insertNew(batch, rejected));
+            job.imported.addAndGet(inserted == null ? 0 : inserted);
+        } catch (DataIntegrityViolationException ex) {
+            // Lost a race with a concurrent writer on uk_customer_email; settle the batch row by row.
+            rejected.clear();
+            for (ParsedRow row : batch) {
+                try {
+                    Integer inserted = transactionTemplate.execute(status -> insertNew(List.of(row), rejected));
+                    job.imported.addAndGet(inserted == null ? 0 : inserted);
+                } catch (DataIntegrityViolationException rowEx) {
+                    rejected.add(row);
+                }
+            }
+        }
+        for (ParsedRow row : rejected) {
+            reject(job, rejects, row, new EmailAlreadyExistsException(row.request.getEmail()).getMessage());
+        }
+        job.batchesCommitted.incrementAndGet();
+    }
+
+    private int insertNew(List<ParsedRow> rows, List<ParsedRow> rejected) {
+        List<String> emails = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            emails.add(row.request.getEmail());
+        }
+        Set<String> taken = new HashSet<>(repository.findExistingEmails(emails));
+        List<Customer> toInsert = new ArrayList<>(rows.size());
+        for (ParsedRow row : rows) {
+            if (taken.contains(row.request.getEmail())) {
+                rejected.add(row);
+            } else {
+                toInsert.add(CustomerMapper.toEntity(row.request));
+            }
+        }
+        repository.saveAll(toInsert);
+        repository.flush();
+        TypeaheadUpdates.put(typeahead, toInsert);
+        for (Customer customer : toInsert) {
+            changes.changed(customer.getId(), customer.getVersion());
+        }
+        return toInsert.size();
+    }
+
+    private void reject(ImportJob job, Writer rejects, ParsedRow row, String reason) throws IOException {
+        job.rejected.incrementAndGet();
+        rejects.write(Long.toString(row.lineNumber));
+        rejects.write(',');
+        CsvSupport.writeField(rejects, reason);
+        rejects.write(',');
+        CsvSupport.writeField(rejects, row.raw);
+        rejects.write('\n');
+    }
+
+    private String firstViolation(CustomerRequest request) {
+        Set<ConstraintViolation<CustomerRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<CustomerRequest> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private void register(ImportJob job) {
+        List<ImportJob> expired = new ArrayList<>();
+        synchronized (jobs) {
+            jobs.put(job.id, job);
+            Iterator<ImportJob> it = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && it.hasNext()) {
+                ImportJob oldest = it.next();
+                if (oldest.isFinished()) {
+                    it.remove();
+                    expired.add(oldest);
+                }
+            }
+        }
+        // File I/O stays outside the monitor so it never pins a virtual carrier thread.
+        for (ImportJob oldest : expired) {
+            try {
+                Files.deleteIfExists(oldest.rejectFile);
+            } catch (IOException ex) {
+                logger.warn("Could not delete reject file {}", oldest.rejectFile);
+            }
+        }
+    }
+
+    private ImportJob job(String jobId) {
+        ImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(jobId);
+        }
+        if (job == null) {
+            throw new ImportJobNotFoundException(jobId);
+        }
+        return job;
+    }
+
+    private interface RowParser {
+        /** Returns true if the line was a header and should not be treated as data. */
+        boolean consumeHeader(String line, long lineNumber);
+
+        CustomerRequest parse(String line) throws JsonProcessingException;
+    }
+
+    private final class NdjsonRowParser implements RowParser {
+        @Override
+        public boolean consumeHeader(String line, long lineNumber) {
+            return false;
+        }
+
+        @Override
+        public CustomerRequest parse(String line) throws JsonProcessingException {
+            return objectMapper.readValue(line, CustomerRequest.class);
+        }
+    }
+
+    private static final class CsvRowParser implements RowParser {
+        private int nameColumn = -1;
+        private int emailColumn = -1;
+
+        @Override
+        public boolean consumeHeader(String line, long lineNumber) {
+            if (nameColumn >= 0) {
+                return false;
+            }
+            List<String> header = CsvSupport.parseLine(line);
+            for (int i = 0; i < header.size(); i++) {
+                String column = header.get(i).trim().toLowerCase(Locale.ROOT);
+                if (column.equals("name")) {
+                    nameColumn = i;
+                } else if (column.equals("email")) {
+                    emailColumn = i;
+                }
+            }
+            if (nameColumn < 0 || emailColumn < 0) {
+                throw new IllegalStateException("CSV header must contain name and email columns");
+            }
+            return true;
+        }
+
+        @Override
+        public CustomerRequest parse(String line) {
+            List<String> fields = CsvSupport.parseLine(line);
+            if (fields.size() <= Math.max(nameColumn, emailColumn)) {
+                throw new IllegalArgumentException("Missing columns");
+            }
+            return CustomerRequest.builder()
+                    .name(fields.get(nameColumn))
+                    .email(fields.get(emailColumn))
+                    .build();
+        }
+    }
+
+    private static final class ParsedRow {
+        private final long lineNumber;
+        private final String raw;
+        private CustomerRequest request;
+
+        private ParsedRow(long lineNumber, String raw) {
+            this.lineNumber = lineNumber;
+            this.raw = raw;
+        }
+    }
+
+    static final class ImportJob {
+        private final String id;
+        private final CustomerFileFormat format;
+        private final Path upload;
+        private final Path rejectFile;
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong batchesCommitted = new AtomicLong();
+        private volatile ImportJobStatus.State state = ImportJobStatus.State.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant finishedAt;
+        private volatile String message;
+
+        private ImportJob(String id, CustomerFileFormat format, Path upload, Path rejectFile) {
+            this.id = id;
+            this.format = format;
+            this.upload = upload;
+            this.rejectFile = rejectFile;
+        }
+
+        private boolean isFinished() {
+            return state == ImportJobStatus.State.COMPLETED || state == ImportJobStatus.State.FAILED;
+        }
+
+        private void complete() {
+            finishedAt = Instant.now();
+            state = ImportJobStatus.State.COMPLETED;
+        }
+
+        private void fail(String reason) {
+            message = reason;
+            finishedAt = Instant.now();
+            state = ImportJobStatus.State.FAILED;
+        }
+
+        private ImportJobStatus toStatus() {
+            return ImportJobStatus.builder()
+                    .jobId(id)
+                    .state(state)
+                    .format(format)
+                    .rowsRead(rowsRead.get())
+                    .imported(imported.get())
+                    .rejected(rejected.get())
+                    .batchesCommitted(batchesCommitted.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .build();
+        }
+    }
+}
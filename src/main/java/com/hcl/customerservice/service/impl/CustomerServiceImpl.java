@@ -1,46 +1,114 @@
 package com.hcl.customerservice.service.impl;
 
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.dto.BatchItemResult;
+import com.hcl.customerservice.dto.BatchResponse;
+import com.hcl.customerservice.dto.CustomerBatchUpdateRequest;
 import com.hcl.customerservice.dto.CustomerRequest;
-import com.hcl.customerservice.dto<CustomerResponse;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerSearchField;
+import com.hcl.customerservice.dto.CustomerSearchMode;
+import com.hcl.customerservice.dto.CursorPage;
 import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.exception.BatchSizeExceededException;
 import com.hcl.customerservice.exception.CustomerNotFoundException;
 import com.hcl.customerservice.exception.EmailAlreadyExistsException;
+import com.hcl.customerservice.exception.InvalidCursorException;
+import com.hcl.customerservice.exception.InvalidSearchException;
+import com.hcl.customerservice.exception.PreconditionFailedException;
+import com.hcl.customerservice.invalidation.CustomerChangePublisher;
 import com.hcl.customerservice.mapper.CustomerMapper;
 import com.hcl.customerservice.repository.CustomerRepository;
 import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import com.hcl.customerservice.util.CustomerCursor;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
 
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerServiceImpl.class);
 
     private final CustomerRepository repository;
+    private final CustomerCache cache;
+    private final Validator validator;
+    private final CustomerTypeaheadIndex typeahead;
+    private final CustomerChangePublisher changes;
+    private final TransactionTemplate transactions;
+
+    private static final String EMAIL_CONSTRAINT = "uk_customer_email";
+
+    // Cache floor for a deleted id: no copy of it is new enough to cache.
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Keeps IN-lists well under PostgreSQL's bind-parameter limit.
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    // Longest column (email); a longer term cannot match anything.
+    static final int MAX_SEARCH_TERM_LENGTH = 255;
+
+    @Value("${customer.batch.max-size:5000}")
+    private int maxBatchSize = 5000;
 
     @Override
     @Transactional
     public CustomerResponse createCustomer(CustomerRequest request) {
-        if (repository.existsByEmail(request.getEmail())) {
-            throw new EmailAlreadyExistsException(request.getEmail());
-        }
-        Customer saved = repository.save(CustomerMapper.toEntity(request));
-        logger.info("Created customer {}", saved.getId());
+        Customer saved = saveAndFlush(CustomerMapper.toEntity(request));
+        TypeaheadUpdates.put(typeahead, saved.getId(), saved.getVersion(), saved.getName(), saved.getEmail());
+        changes.changed(saved.getId(), saved.getVersion());
+        logger.debug("Created customer {}", saved.getId());
         return CustomerMapper.toResponse(saved);
     }
 
     @Override
     @Transactional(readOnly = true)
     public CustomerResponse getCustomerById(Long id) {
-        Customer customer = repository.findById(id)
-                .orElseThrow(() -> new CustomerNotFoundException(id));
-        return CustomerMapper.toResponse(customer);
+        return cache.getById(id, key -> repository.findById(key)
+                .map(CustomerMapper::toResponse)
+                .orElseThrow(() -> new CustomerNotFoundException(key)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCustomerVersion(Long id) {
+        CustomerResponse cached = cache.getIfPresent(id);
+        if (cached != null && cached.getVersion() != null) {
+            return cached.getVersion();
+        }
+        return repository.findVersionById(id).orElseThrow(() -> new CustomerNotFoundException(id));
     }
 
     @Override
@@ -49,28 +117,448 @@ public class CustomerServiceImpl implements CustomerService {
         return repository.findAll(pageable).map(CustomerMapper::toResponse);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerResponse> getCustomersAfter(String cursor, int size,
+                                                          CustomerCursor.SortKey sortKey, boolean descending) {
+        // A cursor carries its own ordering, so follow-up pages ignore the sort arguments.
+        CustomerCursor position = cursor == null ? null : CustomerCursor.decode(cursor);
+        if (position != null) {
+            sortKey = position.sortKey();
+            descending = position.descending();
+        }
+        // Fetch one extra row to learn whether another page exists without a count query.
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Customer> rows = position == null
+                ? repository.findAllBy(PageRequest.of(0, size + 1, keysetSort(sortKey, descending)))
+                : findAfter(position, limit);
+
+        return cursorPage(rows, size, sortKey, descending);
+    }
+
+    @Override
+    @Transactional(readOnly = true, timeoutString = "${customer.search.timeout-seconds:2}")
+    public CursorPage<CustomerResponse> searchCustomers(String query, CustomerSearchField field,
+                                                        CustomerSearchMode mode, String cursor, int size) {
+        String pattern = likePattern(query, mode);
+        long afterId = 0;
+        if (cursor != null) {
+            CustomerCursor position = CustomerCursor.decode(cursor);
+            if (position.sortKey() != CustomerCursor.SortKey.ID || position.descending()) {
+                throw new InvalidCursorException("Cursor does not belong to a search");
+            }
+            afterId = position.lastId();
+        }
+        // Ordered by id rather than relevance: the planner either walks the primary key and stops
+        // after size + 1 matches (common terms) or collects the few index matches and sorts them
+        // (rare terms). Anything slower is cut off by the transaction timeout.
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Customer> rows = switch (field) {
+            case NAME -> repository.searchByName(pattern, afterId, limit);
+            case EMAIL -> repository.searchByEmail(pattern, afterId, limit);
+            case ANY -> repository.searchByNameOrEmail(pattern, afterId, limit);
+        };
+        return cursorPage(rows, size, CustomerCursor.SortKey.ID, false);
+    }
+
     @Override
     @Transactional
-    public CustomerResponse updateCustomer(Long id, CustomerRequest request) {
+    public CustomerResponse updateCustomer(Long id, CustomerRequest request, Long expectedVersion) {
         Customer customer = repository.findById(id)
                 .orElseThrow(() -> new CustomerNotFoundException(id));
-        if (!customer.getEmail().equals(request.getEmail()) && repository.existsByEmail(request.getEmail())) {
-            throw new EmailAlreadyExistsException(request.getEmail());
+        // A write that lands between this check and the flush still fails, on the @Version check.
+        if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+            throw versionMismatch(id);
         }
         customer.setName(request.getName());
         customer.setEmail(request.getEmail());
-        Customer updated = repository.save(customer);
-        logger.info("Updated customer {}", id);
+        Customer updated = saveAndFlush(customer);
+        evict(id, updated.getVersion());
+        TypeaheadUpdates.put(typeahead, id, updated.getVersion(), updated.getName(), updated.getEmail());
+        changes.changed(id, updated.getVersion());
+        logger.debug("Updated customer {}", id);
         return CustomerMapper.toResponse(updated);
     }
 
     @Override
     @Transactional
-    public void deleteCustomer(Long id) {
-        if (!repository.existsById(id)) {
+    public void deleteCustomer(Long id, Long expectedVersion) {
+        int deleted = expectedVersion == null
+                ? repository.deleteByIdReturningCount(id)
+                : repository.deleteByIdAndVersionReturningCount(id, expectedVersion);
+        if (deleted == 0) {
+            if (expectedVersion != null && repository.existsById(id)) {
+                throw versionMismatch(id);
+            }
             throw new CustomerNotFoundException(id);
         }
-        repository.deleteById(id);
-        logger.info("Deleted customer {}", id);
+        evict(id, DELETED);
+        TypeaheadUpdates.remove(typeahead, List.of(id));
+        changes.deleted(id);
+        logger.debug("Deleted customer {}", id);
+    }
+
+    // Not @Transactional: the batch runs in a transaction of its own, and if it loses a race on
+    // uk_customer_email (a failed flush leaves that transaction unusable) every item is retried in
+    // its own, so the constraint decides per item and the caller still gets per-item results.
+    @Override
+    public BatchResponse createCustomers(List<CustomerRequest> requests) {
+        checkBatchSize(requests.size());
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<String, Integer> candidates = new HashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CustomerRequest request = requests.get(i);
+            String violation = firstViolation(request);
+            if (violation != null) {
+                results[i] = failure(i, null, BatchItemResult.Status.INVALID, violation);
+            } else if (candidates.putIfAbsent(request.getEmail(), i) != null) {
+                results[i] = failure(i, null, BatchItemResult.Status.CONFLICT, "Duplicate email in batch: " + request.getEmail());
+            }
+        }
+
+        List<Integer> pending = new ArrayList<>(candidates.values());
+        inBatchThenPerItem(pending, indexes -> insertNew(requests, indexes, results),
+                index -> results[index] = emailConflict(index, null, requests.get(index).getEmail()));
+        BatchResponse response = toBatchResponse(results);
+        logger.info("Batch created {} of {} customers", response.getSucceeded(), requests.size());
+        return response;
+    }
+
+    // The existence check spares the common case a failed flush; uk_customer_email has the last word.
+    private void insertNew(List<CustomerRequest> requests, List<Integer> indexes, BatchItemResult[] results) {
+        List<String> emails = indexes.stream().map(index -> requests.get(index).getEmail()).toList();
+        Set<String> taken = new HashSet<>(inChunks(emails, repository::findExistingEmails));
+        List<Customer> toInsert = new ArrayList<>(indexes.size());
+        List<Integer> insertIndexes = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            CustomerRequest request = requests.get(index);
+            if (taken.contains(request.getEmail())) {
+                results[index] = emailConflict(index, null, request.getEmail());
+            } else {
+                toInsert.add(CustomerMapper.toEntity(request));
+                insertIndexes.add(index);
+            }
+        }
+
+        List<Customer> saved = repository.saveAllAndFlush(toInsert);
+        TypeaheadUpdates.put(typeahead, saved);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = insertIndexes.get(i);
+            results[index] = success(index, saved.get(i).getId(), BatchItemResult.Status.CREATED);
+            changes.changed(saved.get(i).getId(), saved.get(i).getVersion());
+        }
+    }
+
+    // Transactions as in createCustomers.
+    @Override
+    public BatchResponse updateCustomers(List<CustomerBatchUpdateRequest> requests) {
+        checkBatchSize(requests.size());
+        BatchItemResult[] results = new BatchItemResult[requests.size()];
+        Map<Long, Integer> candidates = new HashMap<>();
+        Set<String> emails = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            CustomerBatchUpdateRequest request = requests.get(i);
+            String violation = firstViolation(request);
+            if (violation != null) {
+                results[i] = failure(i, request.getId(), BatchItemResult.Status.INVALID, violation);
+            } else if (candidates.putIfAbsent(request.getId(), i) != null) {
+                results[i] = failure(i, request.getId(), BatchItemResult.Status.CONFLICT, "Duplicate id in batch: " + request.getId());
+            } else if (!emails.add(request.getEmail())) {
+                candidates.remove(request.getId());
+                results[i] = failure(i, request.getId(), BatchItemResult.Status.CONFLICT, "Duplicate email in batch: " + request.getEmail());
+            }
+        }
+
+        List<Integer> pending = new ArrayList<>(candidates.values());
+        inBatchThenPerItem(pending, indexes -> updateExisting(requests, indexes, results), index -> {
+            CustomerBatchUpdateRequest request = requests.get(index);
+            results[index] = emailConflict(index, request.getId(), request.getEmail());
+        });
+        BatchResponse response = toBatchResponse(results);
+        logger.info("Batch updated {} of {} customers", response.getSucceeded(), requests.size());
+        return response;
+    }
+
+    private void updateExisting(List<CustomerBatchUpdateRequest> requests, List<Integer> indexes, BatchItemResult[] results) {
+        Set<Long> ids = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        for (int index : indexes) {
+            ids.add(requests.get(index).getId());
+            emails.add(requests.get(index).getEmail());
+        }
+        Map<Long, Customer> existing = inChunks(ids, repository::findAllById).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+        Map<String, Long> owners = inChunks(emails, repository::findByEmailIn).stream()
+                .collect(Collectors.toMap(Customer::getEmail, Customer::getId));
+
+        List<Customer> toUpdate = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            CustomerBatchUpdateRequest request = requests.get(index);
+            Long id = request.getId();
+            Customer customer = existing.get(id);
+            Long owner = owners.get(request.getEmail());
+            if (customer == null) {
+                results[index] = failure(index, id, BatchItemResult.Status.NOT_FOUND, new CustomerNotFoundException(id).getMessage());
+            } else if (owner != null && !owner.equals(id)) {
+                results[index] = emailConflict(index, id, request.getEmail());
+            } else {
+                customer.setName(request.getName());
+                customer.setEmail(request.getEmail());
+                toUpdate.add(customer);
+                results[index] = success(index, id, BatchItemResult.Status.UPDATED);
+            }
+        }
+        // Flushed here rather than at commit so a conflict surfaces in this method and the entities
+        // carry their new versions.
+        repository.saveAllAndFlush(toUpdate);
+        TypeaheadUpdates.put(typeahead, toUpdate);
+        for (Customer customer : toUpdate) {
+            evict(customer.getId(), customer.getVersion());
+            changes.changed(customer.getId(), customer.getVersion());
+        }
+    }
+
+    // Writes all items in one transaction; if that loses a race on uk_customer_email, writes each
+    // item in a transaction of its own and hands the ones that still conflict to onConflict.
+    private void inBatchThenPerItem(List<Integer> indexes, Consumer<List<Integer>> write, IntConsumer onConflict) {
+        try {
+            transactions.executeWithoutResult(status -> write.accept(indexes));
+        } catch (DataIntegrityViolationException ex) {
+            if (!isEmailConflict(ex)) {
+                throw ex;
+            }
+            for (int index : indexes) {
+                try {
+                    transactions.executeWithoutResult(status -> write.accept(List.of(index)));
+                } catch (DataIntegrityViolationException itemEx) {
+                    if (!isEmailConflict(itemEx)) {
+                        throw itemEx;
+                    }
+                    onConflict.accept(index);
+                }
+            }
+        }
+    }
+
+    @Override
+    @Transactional
+    public BatchResponse deleteCustomers(List<Long> ids) {
+        checkBatchSize(ids.size());
+        Set<Long> requested = ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        Set<Long> existing = new HashSet<>(inChunks(requested, repository::findExistingIds));
+        Set<Long> seen = new HashSet<>();
+        BatchItemResult[] results = new BatchItemResult[ids.size()];
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results[i] = failure(i, null, BatchItemResult.Status.INVALID, "id: must not be null");
+            } else if (!existing.contains(id)) {
+                results[i] = failure(i, id, BatchItemResult.Status.NOT_FOUND, new CustomerNotFoundException(id).getMessage());
+            } else if (!seen.add(id)) {
+                results[i] = failure(i, id, BatchItemResult.Status.CONFLICT, "Duplicate id in batch: " + id);
+            } else {
+                results[i] = success(i, id, BatchItemResult.Status.DELETED);
+            }
+        }
+        for (List<Long> chunk : chunk(seen)) {
+            repository.deleteAllByIdInBatch(chunk);
+        }
+        seen.forEach(id -> evict(id, DELETED));
+        TypeaheadUpdates.remove(typeahead, seen);
+        seen.forEach(changes::deleted);
+        logger.info("Batch deleted {} of {} customers", seen.size(), ids.size());
+        return toBatchResponse(results);
+    }
+
+    @Override
+    @Transactional
+    public CustomerResponse upsertCustomerByEmail(CustomerRequest request) {
+        CustomerRepository.UpsertedCustomer upserted = repository.upsertByEmail(request.getName(), request.getEmail());
+        Long id = upserted.getId();
+        evict(id, upserted.getVersion());
+        TypeaheadUpdates.put(typeahead, id, upserted.getVersion(), request.getName(), request.getEmail());
+        changes.changed(id, upserted.getVersion());
+        logger.debug("Upserted customer {}", id);
+        return CustomerResponse.builder()
+                .id(id)
+                .name(request.getName())
+                .email(request.getEmail())
+                .version(upserted.getVersion())
+                .build();
+    }
+
+    private static PreconditionFailedException versionMismatch(Long id) {
+        return new PreconditionFailedException("Customer " + id + " has changed since the given ETag; reload and retry");
+    }
+
+    // Writes go straight to the database and let uk_customer_email arbitrate: one statement instead of
+    // exists-then-write, and no window for two concurrent writers to both pass the check.
+    private Customer saveAndFlush(Customer customer) {
+        try {
+            return repository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException ex) {
+            if (isEmailConflict(ex)) {
+                throw new EmailAlreadyExistsException(customer.getEmail());
+            }
+            throw ex;
+        }
+    }
+
+    private static boolean isEmailConflict(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return violation.getConstraintName() != null
+                        && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    // Evict now, and again once the transaction completes. On commit the written version also
+    // becomes the id's floor, as for a write announced by another instance: a concurrent read of the
+    // pre-commit row, or one from a replica that has not replayed the write, is not cached.
+    private void evict(Long id, long committedVersion) {
+        cache.evict(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        cache.invalidate(id, committedVersion);
+                    } else {
+                        cache.evict(id);
+                    }
+                }
+            });
+        }
+    }
+
+    private List<Customer> findAfter(CustomerCursor position, Pageable limit) {
+        boolean desc = position.descending();
+        return switch (position.sortKey()) {
+            case ID -> desc
+                    ? repository.findByIdBefore(position.lastId(), limit)
+                    : repository.findByIdAfter(position.lastId(), limit);
+            case NAME -> desc
+                    ? repository.findByNameBefore(position.lastValue(), position.lastId(), limit)
+                    : repository.findByNameAfter(position.lastValue(), position.lastId(), limit);
+            case EMAIL -> desc
+                    ? repository.findByEmailBefore(position.lastValue(), limit)
+                    : repository.findByEmailAfter(position.lastValue(), limit);
+        };
+    }
+
+    private static CursorPage<CustomerResponse> cursorPage(List<Customer> rows, int size,
+                                                           CustomerCursor.SortKey sortKey, boolean descending) {
+        boolean hasNext = rows.size() > size;
+        List<Customer> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext
+                ? CustomerCursor.after(page.get(page.size() - 1), sortKey, descending).encode()
+                : null;
+        return CursorPage.<CustomerResponse>builder()
+                .content(page.stream().map(CustomerMapper::toResponse).toList())
+                .size(page.size())
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Lower-cases the term and escapes LIKE wildcards (with {@code \}) so it matches literally.
+     */
+    static String likePattern(String query, CustomerSearchMode mode) {
+        String term = query == null ? "" : query.strip().toLowerCase(Locale.ROOT);
+        if (term.length() < mode.getMinLength() || term.length() > MAX_SEARCH_TERM_LENGTH) {
+            throw new InvalidSearchException("Search term must be " + mode.getMinLength() + " to "
+                    + MAX_SEARCH_TERM_LENGTH + " characters for " + mode + " matching");
+        }
+        StringBuilder pattern = new StringBuilder(term.length() + 4);
+        if (mode == CustomerSearchMode.CONTAINS) {
+            pattern.append('%');
+        }
+        for (int i = 0; i < term.length(); i++) {
+            char ch = term.charAt(i);
+            if (ch == '%' || ch == '_' || ch == '\\') {
+                pattern.append('\\');
+            }
+            pattern.append(ch);
+        }
+        return pattern.append('%').toString();
+    }
+
+    private static Sort keysetSort(CustomerCursor.SortKey sortKey, boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return switch (sortKey) {
+            case ID -> Sort.by(direction, "id");
+            case NAME -> Sort.by(direction, "name", "id");
+            case EMAIL -> Sort.by(direction, "email");
+        };
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > maxBatchSize) {
+            throw new BatchSizeExceededException(size, maxBatchSize);
+        }
+    }
+
+    private String firstViolation(Object request) {
+        if (request == null) {
+            return "Item must not be null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        ConstraintViolation<Object> violation = violations.iterator().next();
+        return violation.getPropertyPath() + ": " + violation.getMessage();
+    }
+
+    private static <K, V> List<V> inChunks(Collection<K> keys, Function<List<K>, List<V>> query) {
+        List<V> results = new ArrayList<>();
+        for (List<K> chunk : chunk(keys)) {
+            results.addAll(query.apply(chunk));
+        }
+        return results;
+    }
+
+    private static <K> List<List<K>> chunk(Collection<K> keys) {
+        List<List<K>> chunks = new ArrayList<>();
+        List<K> current = new ArrayList<>(Math.min(keys.size(), LOOKUP_CHUNK_SIZE));
+        for (K key : keys) {
+            current.add(key);
+            if (current.size() == LOOKUP_CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+
+    private static BatchItemResult success(int index, Long id, BatchItemResult.Status status) {
+        return BatchItemResult.builder().index(index).id(id).status(status).build();
+    }
+
+    private static BatchItemResult failure(int index, Long id, BatchItemResult.Status status, String message) {
+        return BatchItemResult.builder().index(index).id(id).status(status).message(message).build();
+    }
+
+    private static BatchItemResult emailConflict(int index, Long id, String email) {
+        return failure(index, id, BatchItemResult.Status.CONFLICT, new EmailAlreadyExistsException(email).getMessage());
+    }
+
+    private static BatchResponse toBatchResponse(BatchItemResult[] results) {
+        int succeeded = 0;
+        for (BatchItemResult result : results) {
+            if (result.getMessage() == null) {
+                succeeded++;
+            }
+        }
+        return BatchResponse.builder()
+                .succeeded(succeeded)
+                .failed(results.length - succeeded)
+                .results(List.of(results))
+                .build();
     }
 }
@@ -0,0 +1,37 @@
+package com.hcl.customerservice.service.impl;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerSearchField;
+import com.hcl.customerservice.dto.CustomerSearchMode;
+import com.hcl.customerservice.exception.InvalidSearchException;
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.service.CustomerTypeaheadService;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Deliberately not @Transactional: an index hit must not borrow a pooled connection.
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CustomerTypeaheadServiceImpl implements CustomerTypeaheadService {
+
+    private final CustomerTypeaheadIndex index;
+    private final CustomerService customerService;
+
+    @Override
+    public List<CustomerResponse> suggest(String query, int limit) {
+        if (query == null || query.isBlank() || query.length() > CustomerServiceImpl.MAX_SEARCH_TERM_LENGTH) {
+            throw new InvalidSearchException("Search term must be 1 to "
+                    + CustomerServiceImpl.MAX_SEARCH_TERM_LENGTH + " characters");
+        }
+        if (index.isReady()) {
+            return index.lookup(query, limit);
+        }
+        return customerService.searchCustomers(query, CustomerSearchField.ANY, CustomerSearchMode.PREFIX, null, limit)
+                .getContent();
+    }
+}
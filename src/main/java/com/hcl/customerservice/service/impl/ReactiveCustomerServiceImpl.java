@@ -0,0 +1,139 @@
+package com.hcl.customerservice.service.impl;
+
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.exception.CustomerNotFoundException;
+import com.hcl.customerservice.exception.EmailAlreadyExistsException;
+import com.hcl.customerservice.service.ReactiveCustomerService;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * R2DBC implementation using plain SQL through {@link DatabaseClient}. Every write is a single
+ * statement; uniqueness is enforced by uk_customer_email and translated to the same exceptions the
+ * blocking service throws.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCustomerServiceImpl implements ReactiveCustomerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCustomerServiceImpl.class);
+
+    private static final String EMAIL_CONSTRAINT = "uk_customer_email";
+    private static final String COLUMNS = "select id, name, email from customers";
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final DatabaseClient client;
+
+    @Override
+    public Mono<CustomerResponse> createCustomer(CustomerRequest request) {
+        return client.sql("insert into customers (id, name, email) values (nextval('customers_id_seq'), :name, :email) returning id")
+                .bind("name", request.getName())
+                .bind("email", request.getEmail())
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .onErrorMap(this::isEmailConflict, ex -> new EmailAlreadyExistsException(request.getEmail()))
+                .map(id -> toResponse(id, request))
+                .doOnNext(created -> logger.debug("Created customer {}", created.getId()));
+    }
+
+    @Override
+    public Mono<CustomerResponse> getCustomerById(Long id) {
+        return client.sql(COLUMNS + " where id = :id")
+                .bind("id", id)
+                .map(row -> toResponse(row))
+                .one()
+                .switchIfEmpty(Mono.error(() -> new CustomerNotFoundException(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Mono<Page<CustomerResponse>> getAllCustomers(Pageable pageable) {
+        Mono<Long> total = client.sql("select count(*) from customers")
+                .map(row -> row.get(0, Long.class))
+                .one();
+        return client.sql(COLUMNS + " order by id limit :limit offset :offset")
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(row -> toResponse(row))
+                .all()
+                .collectList()
+                .zipWith(total, (content, count) -> new PageImpl<>(content, pageable, count));
+    }
+
+    // A fetch size makes the driver use the extended protocol and execute the portal
+    // STREAM_FETCH_SIZE rows at a time, asking for the next chunk only once the subscriber has
+    // requested it. Without one the server sends the whole result in one go.
+    @Override
+    public Flux<CustomerResponse> streamCustomers() {
+        return client.sql(COLUMNS + " order by id")
+                .filter(statement -> statement.fetchSize(STREAM_FETCH_SIZE))
+                .map(row -> toResponse(row))
+                .all();
+    }
+
+    @Override
+    public Mono<CustomerResponse> updateCustomer(Long id, CustomerRequest request) {
+        // Bumps the row version like the JPA stack does, so versions stay comparable across both.
+        return client.sql("update customers set name = :name, email = :email, version = version + 1 where id = :id")
+                .bind("name", request.getName())
+                .bind("email", request.getEmail())
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .onErrorMap(this::isEmailConflict, ex -> new EmailAlreadyExistsException(request.getEmail()))
+                .flatMap(updated -> updated == 0
+                        ? Mono.error(new CustomerNotFoundException(id))
+                        : Mono.just(toResponse(id, request)))
+                .doOnNext(updated -> logger.debug("Updated customer {}", id));
+    }
+
+    @Override
+    public Mono<Void> deleteCustomer(Long id) {
+        return client.sql("delete from customers where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .flatMap(deleted -> deleted == 0
+                        ? Mono.<Void>error(new CustomerNotFoundException(id))
+                        : Mono.<Void>empty())
+                .doOnSuccess(ignored -> logger.debug("Deleted customer {}", id));
+    }
+
+    private boolean isEmailConflict(Throwable ex) {
+        return ex instanceof DataIntegrityViolationException
+                && ex.getMessage() != null
+                && ex.getMessage().toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+    }
+
+    private static CustomerResponse toResponse(Readable row) {
+        return CustomerResponse.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .email(row.get("email", String.class))
+                .build();
+    }
+
+    private static CustomerResponse toResponse(Long id, CustomerRequest request) {
+        return CustomerResponse.builder()
+                .id(id)
+                .name(request.getName())
+                .email(request.getEmail())
+                .build();
+    }
+}
@@ -0,0 +1,52 @@
+package com.hcl.customerservice.service.impl;
+
+import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Applies customer writes to the typeahead index once their transaction commits, so the index
+ * never shows a rolled-back row. Without a transaction the change is applied immediately.
+ */
+final class TypeaheadUpdates {
+
+    private TypeaheadUpdates() {
+    }
+
+    static void put(CustomerTypeaheadIndex index, Collection<Customer> customers) {
+        List<Customer> written = List.copyOf(customers);
+        afterCommit(() -> {
+            for (Customer customer : written) {
+                if (customer.getId() != null && customer.getVersion() != null) {
+                    index.put(customer.getId(), customer.getVersion(), customer.getName(), customer.getEmail());
+                }
+            }
+        });
+    }
+
+    static void put(CustomerTypeaheadIndex index, long id, long version, String name, String email) {
+        afterCommit(() -> index.put(id, version, name, email));
+    }
+
+    static void remove(CustomerTypeaheadIndex index, Collection<Long> ids) {
+        List<Long> removed = List.copyOf(ids);
+        afterCommit(() -> removed.forEach(index::remove));
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+}
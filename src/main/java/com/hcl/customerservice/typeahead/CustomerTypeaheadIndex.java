@@ -0,0 +1,49 @@
+package com.hcl.customerservice.typeahead;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * In-process prefix index over customer names and emails for typeahead lookups. Kept current by
+ * the write paths after each commit and by change notifications from other instances; see
+ * {@code TypeaheadIndexLoader} for the initial build.
+ */
+public interface CustomerTypeaheadIndex {
+
+    /**
+     * Customers for which every whitespace-separated word of {@code query} starts a word of the
+     * name or the email, in term order. Case-insensitive; at most {@code limit} results.
+     */
+    List<CustomerResponse> lookup(String query, int limit);
+
+    /** Whether the initial load finished and the index is not suspended; otherwise lookups must go elsewhere. */
+    boolean isReady();
+
+    /**
+     * Adds the customer, or replaces what is indexed for its id when {@code version} is newer.
+     * Ignored for an id removed recently: ids are never reused, so that write predates the removal.
+     */
+    void put(long id, long version, String name, String email);
+
+    void remove(long id);
+
+    /**
+     * Builds the index from a full snapshot: {@code snapshot} feeds every row to the sink it is
+     * given. Rows written through {@link #put}/{@link #remove} while it runs keep their newer state.
+     * Loading again resynchronises the index: customers absent from the new snapshot are dropped.
+     */
+    void load(Consumer<RowSink> snapshot);
+
+    /** Makes {@link #isReady()} false until {@link #resume()}; writes keep being applied. */
+    void suspend();
+
+    void resume();
+
+    int size();
+
+    interface RowSink {
+        void accept(long id, long version, String name, String email);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hcl.customerservice.typeahead;
+
+import com.hcl.customerservice.datasource.ReadWriteRoutingDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+
+/**
+ * Builds the typeahead index at startup from a forward-only cursor over the customers table.
+ * Runs as an {@link ApplicationRunner}, so the readiness probe only reports ACCEPTING_TRAFFIC
+ * once the index is complete. {@link #load()} also resynchronises the index after change
+ * notifications may have been missed.
+ */
+public class TypeaheadIndexLoader implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeaheadIndexLoader.class);
+
+    private static final String SNAPSHOT_SQL = "select id, version, name, email from customers";
+
+    private final CustomerTypeaheadIndex index;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TypeaheadIndexLoader(CustomerTypeaheadIndex index, DataSource dataSource,
+                                PlatformTransactionManager transactionManager, int fetchSize) {
+        this.index = index;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        // PgJDBC only streams with autocommit off, hence the (read-only) transaction.
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        load();
+    }
+
+    public void load() {
+        long started = System.nanoTime();
+        // Change notifications are applied on top of the snapshot, so it must not lag behind them.
+        ReadWriteRoutingDataSource.onPrimary(() -> index.load(sink -> transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.query(SNAPSHOT_SQL, (ResultSet rs) ->
+                        sink.accept(rs.getLong(1), rs.getLong(2), rs.getString(3), rs.getString(4))))));
+        logger.info("Typeahead index loaded {} customers in {} ms", index.size(),
+                (System.nanoTime() - started) / 1_000_000);
+    }
+}
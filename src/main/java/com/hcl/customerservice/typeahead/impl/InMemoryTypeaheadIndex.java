@@ -0,0 +1,449 @@
+package com.hcl.customerservice.typeahead.impl;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Sorted term dictionary from lower-cased name words and whole emails to posting lists, so a
+ * prefix lookup is a range of the {@link TreeMap}. A posting list is a {@code long[]} holding its
+ * length in slot 0 followed by ascending ids: no boxed ids, and a term used by a single customer
+ * (every email) costs one 32-byte array. Names, emails and versions sit in a primitive-keyed
+ * open-addressing table rather than a map of boxed ids. Lookups share a read lock; writes take the
+ * write lock.
+ */
+public class InMemoryTypeaheadIndex implements CustomerTypeaheadIndex {
+
+    // Multi-word queries walk the postings of their longest word and check the other words
+    // against each candidate; this bounds that walk for a short word plus a rare one.
+    static final int MAX_CANDIDATES = 10_000;
+
+    // Recently removed ids, so a late put or snapshot row cannot bring a customer back. Only the
+    // latest are kept, except during a load, which must skip every row removed since it started.
+    static final int MAX_REMOVED_IDS = 10_000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, long[]> terms = new TreeMap<>();
+    private final Documents documents = new Documents();
+    private final Map<Long, Boolean> removed = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return !loading && size() > MAX_REMOVED_IDS;
+        }
+    };
+
+    // Write-locked. Every put stamps its document with the current generation; a load starts a new
+    // one and afterwards drops the documents it did not stamp, i.e. rows deleted while unobserved.
+    private int generation;
+    private boolean loading;
+
+    private volatile boolean loaded;
+    private volatile boolean suspended;
+
+    @Override
+    public List<CustomerResponse> lookup(String query, int limit) {
+        String[] words = query == null ? new String[0] : query.strip().toLowerCase(Locale.ROOT).split("\\s+");
+        String driver = longest(words);
+        if (driver.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        List<CustomerResponse> results = new ArrayList<>(Math.min(limit, 64));
+        long[] found = new long[limit];
+        int examined = 0;
+        lock.readLock().lock();
+        try {
+            for (long[] postings : terms.subMap(driver, true, driver + Character.MAX_VALUE, false).values()) {
+                int size = (int) postings[0];
+                for (int i = 1; i <= size; i++) {
+                    long id = postings[i];
+                    if (++examined > MAX_CANDIDATES) {
+                        return results;
+                    }
+                    if (contains(found, results.size(), id)) {
+                        continue;
+                    }
+                    int slot = documents.find(id);
+                    String name = documents.name(slot);
+                    String email = documents.email(slot);
+                    if (words.length > 1 && !matchesAll(name, email, words)) {
+                        continue;
+                    }
+                    found[results.size()] = id;
+                    results.add(CustomerResponse.builder()
+                            .id(id).name(name).email(email).version(documents.version(slot))
+                            .build());
+                    if (results.size() == limit) {
+                        return results;
+                    }
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return loaded && !suspended;
+    }
+
+    @Override
+    public void put(long id, long version, String name, String email) {
+        lock.writeLock().lock();
+        try {
+            if (!removed.containsKey(id)) {
+                index(id, version, name, email);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removed.put(id, Boolean.TRUE);
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Synchronized: a resync requested while the startup load still runs waits for it.
+    @Override
+    public synchronized void load(Consumer<RowSink> snapshot) {
+        lock.writeLock().lock();
+        try {
+            loading = true;
+            generation++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        boolean complete = false;
+        try {
+            snapshot.accept(this::put);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                loading = false;
+                if (complete) {
+                    dropUnstamped();
+                }
+                // Back to the bound, oldest first.
+                Iterator<Long> eldest = removed.keySet().iterator();
+                while (removed.size() > MAX_REMOVED_IDS) {
+                    eldest.next();
+                    eldest.remove();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        loaded = true;
+    }
+
+    @Override
+    public void suspend() {
+        suspended = true;
+    }
+
+    @Override
+    public void resume() {
+        suspended = false;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Name words (split at anything but letters and digits) and the whole email, lower-cased.
+     */
+    static List<String> terms(String name, String email) {
+        List<String> terms = new ArrayList<>(4);
+        if (name != null) {
+            String lower = name.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= lower.length(); i++) {
+                boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+                if (wordChar && start < 0) {
+                    start = i;
+                } else if (!wordChar && start >= 0) {
+                    terms.add(lower.substring(start, i));
+                    start = -1;
+                }
+            }
+        }
+        if (email != null && !email.isEmpty()) {
+            terms.add(email.toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+
+    private void index(long id, long version, String name, String email) {
+        int slot = documents.find(id);
+        if (slot >= 0) {
+            if (documents.version(slot) >= version) {
+                documents.stamp(slot, generation);
+                return;
+            }
+            unindexTerms(id, documents.name(slot), documents.email(slot));
+        }
+        documents.put(id, version, name, email, generation);
+        for (String term : terms(name, email)) {
+            terms.put(term, addPosting(terms.get(term), id));
+        }
+    }
+
+    private void unindex(long id) {
+        int slot = documents.find(id);
+        if (slot >= 0) {
+            unindexTerms(id, documents.name(slot), documents.email(slot));
+            documents.removeAt(slot);
+        }
+    }
+
+    private void dropUnstamped() {
+        long[] stale = documents.idsNotStamped(generation);
+        for (long id : stale) {
+            unindex(id);
+        }
+    }
+
+    private void unindexTerms(long id, String name, String email) {
+        for (String term : terms(name, email)) {
+            long[] postings = terms.get(term);
+            if (postings != null && removePosting(postings, id) == 0) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static long[] addPosting(long[] postings, long id) {
+        if (postings == null) {
+            return new long[] {1, id};
+        }
+        int size = (int) postings[0];
+        int at = Arrays.binarySearch(postings, 1, size + 1, id);
+        if (at >= 0) {
+            return postings;
+        }
+        int insert = -at - 1;
+        if (size + 1 == postings.length) {
+            postings = Arrays.copyOf(postings, postings.length + Math.max(1, size >> 1));
+        }
+        System.arraycopy(postings, insert, postings, insert + 1, size + 1 - insert);
+        postings[insert] = id;
+        postings[0] = size + 1;
+        return postings;
+    }
+
+    /** Removes {@code id} in place and returns the remaining count. */
+    private static int removePosting(long[] postings, long id) {
+        int size = (int) postings[0];
+        int at = Arrays.binarySearch(postings, 1, size + 1, id);
+        if (at < 0) {
+            return size;
+        }
+        System.arraycopy(postings, at + 1, postings, at, size - at);
+        postings[0] = size - 1;
+        return size - 1;
+    }
+
+    // Same matching as terms(), without allocating: each word must start the email or a name word.
+    private static boolean matchesAll(String name, String email, String[] words) {
+        for (String word : words) {
+            if (!(email != null && email.regionMatches(true, 0, word, 0, word.length()) || startsNameWord(name, word))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsNameWord(String name, String word) {
+        if (name == null) {
+            return false;
+        }
+        for (int i = 0; i + word.length() <= name.length(); i++) {
+            boolean wordStart = Character.isLetterOrDigit(name.charAt(i))
+                    && (i == 0 || !Character.isLetterOrDigit(name.charAt(i - 1)));
+            if (wordStart && name.regionMatches(true, i, word, 0, word.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(long[] ids, int count, long id) {
+        for (int i = 0; i < count; i++) {
+            if (ids[i] == id) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Open-addressing table (linear probing, backward-shift deletion) from id to name, email,
+     * version and load generation. Guarded by the index lock.
+     */
+    private static final class Documents {
+
+        private static final long FREE = Long.MIN_VALUE;
+
+        private long[] ids;
+        private long[] versions;
+        private int[] stamps;
+        private String[] names;
+        private String[] emails;
+        private int size;
+
+        Documents() {
+            allocate(1024);
+        }
+
+        /** Slot holding {@code id}, or -1. */
+        int find(long id) {
+            int slot = probe(id);
+            return ids[slot] == id ? slot : -1;
+        }
+
+        String name(int slot) {
+            return names[slot];
+        }
+
+        String email(int slot) {
+            return emails[slot];
+        }
+
+        long version(int slot) {
+            return versions[slot];
+        }
+
+        void stamp(int slot, int generation) {
+            stamps[slot] = generation;
+        }
+
+        void put(long id, long version, String name, String email, int generation) {
+            int slot = probe(id);
+            if (ids[slot] != id) {
+                if (size + 1 > ids.length * 7 / 10) {
+                    grow();
+                    slot = probe(id);
+                }
+                ids[slot] = id;
+                size++;
+            }
+            versions[slot] = version;
+            stamps[slot] = generation;
+            names[slot] = name;
+            emails[slot] = email;
+        }
+
+        long[] idsNotStamped(int generation) {
+            long[] found = new long[16];
+            int count = 0;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] != FREE && stamps[i] != generation) {
+                    if (count == found.length) {
+                        found = Arrays.copyOf(found, count * 2);
+                    }
+                    found[count++] = ids[i];
+                }
+            }
+            return Arrays.copyOf(found, count);
+        }
+
+        void removeAt(int slot) {
+            int mask = ids.length - 1;
+            int hole = slot;
+            for (int i = (slot + 1) & mask; ids[i] != FREE; i = (i + 1) & mask) {
+                // Shift back every entry whose home slot does not lie between the hole and itself.
+                int home = hash(ids[i]) & mask;
+                if (((i - home) & mask) >= ((i - hole) & mask)) {
+                    ids[hole] = ids[i];
+                    versions[hole] = versions[i];
+                    stamps[hole] = stamps[i];
+                    names[hole] = names[i];
+                    emails[hole] = emails[i];
+                    hole = i;
+                }
+            }
+            ids[hole] = FREE;
+            names[hole] = null;
+            emails[hole] = null;
+            size--;
+        }
+
+        private int probe(long id) {
+            int mask = ids.length - 1;
+            int slot = hash(id) & mask;
+            while (ids[slot] != FREE && ids[slot] != id) {
+                slot = (slot + 1) & mask;
+            }
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldIds = ids;
+            long[] oldVersions = versions;
+            int[] oldStamps = stamps;
+            String[] oldNames = names;
+            String[] oldEmails = emails;
+            allocate(oldIds.length * 2);
+            for (int i = 0; i < oldIds.length; i++) {
+                if (oldIds[i] != FREE) {
+                    int slot = probe(oldIds[i]);
+                    ids[slot] = oldIds[i];
+                    versions[slot] = oldVersions[i];
+                    stamps[slot] = oldStamps[i];
+                    names[slot] = oldNames[i];
+                    emails[slot] = oldEmails[i];
+                }
+            }
+        }
+
+        private void allocate(int capacity) {
+            ids = new long[capacity];
+            Arrays.fill(ids, FREE);
+            versions = new long[capacity];
+            stamps = new int[capacity];
+            names = new String[capacity];
+            emails = new String[capacity];
+        }
+
+        private static int hash(long id) {
+            long h = id * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    private static String longest(String[] words) {
+        String longest = "";
+        for (String word : words) {
+            if (word.length() > longest.length()) {
+                longest = word;
+            }
+        }
+        return longest;
+    }
+}
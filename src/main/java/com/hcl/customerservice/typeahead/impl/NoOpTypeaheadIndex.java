@@ -0,0 +1,53 @@
+package com.hcl.customerservice.typeahead.impl;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Used when the typeahead index is disabled; never ready, so lookups go to the database.
+ */
+public class NoOpTypeaheadIndex implements CustomerTypeaheadIndex {
+
+    @Override
+    public List<CustomerResponse> lookup(String query, int limit) {
+        return List.of();
+    }
+
+    @Override
+    public boolean isReady() {
+        return false;
+    }
+
+    @Override
+    public void put(long id, long version, String name, String email) {
+        // nothing to do
+    }
+
+    @Override
+    public void remove(long id) {
+        // nothing to do
+    }
+
+    @Override
+    public void load(Consumer<RowSink> snapshot) {
+        // nothing to do
+    }
+
+    @Override
+    public void suspend() {
+        // nothing to do
+    }
+
+    @Override
+    public void resume() {
+        // nothing to do
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+}
@@ -0,0 +1,46 @@
+package com.hcl.customerservice.util;
+
+import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset position for customer listings: the sort column, its direction and the
+ * (value, id) of the last row returned. Encoded as URL-safe base64 so clients treat it as a token.
+ */
+public record CustomerCursor(SortKey sortKey, boolean descending, String lastValue, long lastId) {
+
+    public enum SortKey { ID, NAME, EMAIL }
+
+    public static CustomerCursor after(Customer last, SortKey sortKey, boolean descending) {
+        String value = switch (sortKey) {
+            case ID -> null;
+            case NAME -> last.getName();
+            case EMAIL -> last.getEmail();
+        };
+        return new CustomerCursor(sortKey, descending, value, last.getId());
+    }
+
+    public String encode() {
+        String raw = sortKey.name() + '|' + (descending ? 'D' : 'A') + '|' + lastId + '|' + (lastValue == null ? "" : lastValue);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CustomerCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // limit 4: the trailing value (a name) may itself contain '|'
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4 || parts[1].length() != 1) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            SortKey sortKey = SortKey.valueOf(parts[0]);
+            return new CustomerCursor(sortKey, parts[1].charAt(0) == 'D',
+                    sortKey == SortKey.ID ? null : parts[3], Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.hcl.customerservice.util;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerVersion;
+import com.hcl.customerservice.exception.PreconditionFailedException;
+import org.springframework.data.domain.Page;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Strong ETags for customer representations. A customer's is its row version. A page's is a digest
+ * of the total and of each row's id and version, everything else in the body being fixed by the
+ * URL.
+ */
+public final class CustomerETags {
+
+    // 128 bits of SHA-256: collisions between two states of the same page are not a concern.
+    private static final int DIGEST_BYTES = 16;
+
+    private CustomerETags() {
+    }
+
+    /** ETag of a single customer, or {@code null} if its version is unknown. */
+    public static String of(Long version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    public static String ofPage(long total, List<CustomerVersion> rows) {
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES * (1 + 2 * rows.size()));
+        buffer.putLong(total);
+        for (CustomerVersion row : rows) {
+            buffer.putLong(row.id()).putLong(row.version());
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(buffer.array());
+            return "\"" + HexFormat.of().formatHex(digest, 0, DIGEST_BYTES) + "\"";
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not available", ex);
+        }
+    }
+
+    /** ETag of a page as sent, or {@code null} if a row has no version. */
+    public static String ofPage(Page<CustomerResponse> page) {
+        List<CustomerVersion> rows = page.getContent().stream()
+                .filter(customer -> customer.getId() != null && customer.getVersion() != null)
+                .map(customer -> new CustomerVersion(customer.getId(), customer.getVersion()))
+                .toList();
+        return rows.size() == page.getNumberOfElements() ? ofPage(page.getTotalElements(), rows) : null;
+    }
+
+    /**
+     * The version an {@code If-Match} header requires, or {@code null} when it requires none (absent
+     * or {@code *}). Only the single strong ETag this service hands out can match; anything else
+     * (a weak or foreign tag, a list) fails the precondition.
+     */
+    public static Long requiredVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            } catch (NumberFormatException ex) {
+                // falls through
+            }
+        }
+        throw new PreconditionFailedException("If-Match does not match the current ETag: " + tag);
+    }
+}
@@ -0,0 +1,12 @@
+-- Schema exactly as the former ddl-auto=update created it (Hibernate 6.2, PostgreSQL), so a fresh
+-- database and one baselined at this version (spring.flyway.baseline-on-migrate, which skips this
+-- script) go through the same later migrations and end up identical. Anything newer belongs in a
+-- later migration, never here.
+
+create table customers (
+    id    bigserial    not null,
+    email varchar(255) not null,
+    name  varchar(150) not null,
+    constraint customers_pkey primary key (id),
+    constraint uk_rfbvkrffamfql7cjmen8v976v unique (email)
+);
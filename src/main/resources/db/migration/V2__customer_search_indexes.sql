@@ -0,0 +1,16 @@
+-- Indexes behind GET /api/v1/customers/search, which matches lower(name) / lower(email) with LIKE.
+-- Built CONCURRENTLY so a large customers table stays writable while they build; that cannot run
+-- inside a transaction, see V2__customer_search_indexes.sql.conf. IF NOT EXISTS lets a rerun after
+-- an interrupted build continue (drop any index left INVALID first).
+
+-- pg_trgm is a trusted extension (PostgreSQL 13+): the database owner may create it.
+create extension if not exists pg_trgm;
+
+-- Substring matches ('%term%'): trigram GIN indexes.
+create index concurrently if not exists idx_customer_name_trgm on customers using gin (lower(name) gin_trgm_ops);
+create index concurrently if not exists idx_customer_email_trgm on customers using gin (lower(email) gin_trgm_ops);
+
+-- Prefix matches ('term%'): btree range scans. text_pattern_ops compares byte-wise, so LIKE can use
+-- the index whatever the database collation is.
+create index concurrently if not exists idx_customer_name_prefix on customers (lower(name) text_pattern_ops);
+create index concurrently if not exists idx_customer_email_prefix on customers (lower(email) text_pattern_ops);
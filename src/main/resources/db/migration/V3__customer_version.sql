@@ -0,0 +1,4 @@
+-- Row version, bumped by every update (JPA @Version on Customer, version + 1 in the upsert). A
+-- constant default makes this a catalog-only change on PostgreSQL 11+: existing rows are not
+-- rewritten.
+alter table customers add column if not exists version bigint not null default 0;
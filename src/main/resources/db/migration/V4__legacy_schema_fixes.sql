@@ -0,0 +1,31 @@
+-- Brings the schema of the former ddl-auto=update (V1, or a database baselined there) in line with
+-- the current mapping.
+
+-- 1. The bigserial id sequence advances by 1; the pooled generator (allocationSize 50) needs 50.
+alter sequence customers_id_seq increment by 50;
+
+-- 2. Hibernate named the email unique constraint itself (uk_<hash>) instead of uk_customer_email,
+--    which the services match on; some databases may carry both, a duplicate index written on
+--    every insert. Keep exactly one, named uk_customer_email.
+do $$
+declare
+    extra record;
+begin
+    for extra in
+        select con.conname
+        from pg_constraint con
+        where con.conrelid = 'customers'::regclass
+          and con.contype = 'u'
+          and con.conname <> 'uk_customer_email'
+          and con.conkey = array[(select attnum from pg_attribute
+                                  where attrelid = 'customers'::regclass and attname = 'email')]
+    loop
+        if exists (select 1 from pg_constraint
+                   where conrelid = 'customers'::regclass and conname = 'uk_customer_email') then
+            execute format('alter table customers drop constraint %I', extra.conname);
+        else
+            execute format('alter table customers rename constraint %I to uk_customer_email', extra.conname);
+        end if;
+    end loop;
+end
+$$;
@@ -0,0 +1,19 @@
+-- Objects added after the move to Flyway that earlier drafts put into V1. A database baselined at
+-- V1 never ran that script, so they are created here, guarded with IF NOT EXISTS.
+
+-- Refresh-token sessions shared by all nodes (jwt.refresh.store=database).
+create table if not exists refresh_sessions (
+    family        varchar(36)                 not null,
+    token_id      varchar(36)                 not null,
+    subject       varchar(100)                not null,
+    expires_at    timestamp(6) with time zone not null,
+    revoked_until timestamp(6) with time zone,
+    constraint refresh_sessions_pkey primary key (family)
+);
+
+create index if not exists idx_refresh_session_revoked_until on refresh_sessions (revoked_until);
+create index if not exists idx_refresh_session_expires_at on refresh_sessions (expires_at);
+
+-- Keyset pages sorted by name (name, id > :name, :id). Built CONCURRENTLY like the V2 indexes, so
+-- this migration runs outside a transaction (see V5__refresh_sessions_and_name_index.sql.conf).
+create index concurrently if not exists idx_customer_name_id on customers (name, id);
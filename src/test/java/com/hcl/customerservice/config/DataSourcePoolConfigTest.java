@@ -0,0 +1,20 @@
+package com.hcl.customerservice.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataSourcePoolConfigTest {
+
+    @Test
+    void poolSizeScalesWithCoresAndBlockingRatio() {
+        assertEquals(20, DataSourcePoolConfig.poolSize(4, 4, 50));
+        assertEquals(6, DataSourcePoolConfig.poolSize(4, 0.5, 50));
+    }
+
+    @Test
+    void poolSizeIsCappedAndHasAFloor() {
+        assertEquals(40, DataSourcePoolConfig.poolSize(64, 4, 40));
+        assertEquals(2, DataSourcePoolConfig.poolSize(1, 0, 40));
+    }
+}
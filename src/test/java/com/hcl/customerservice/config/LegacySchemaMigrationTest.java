@@ -0,0 +1,87 @@
+package com.hcl.customerservice.config;
+
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.exception.EmailAlreadyExistsException;
+import com.hcl.customerservice.repository.RefreshSessionRepository;
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Starts the application on a database created by the former ddl-auto=update: Flyway baselines it
+ * at V1, applies V2 onwards, and Hibernate's schema validation then has to pass.
+ */
+@SpringBootTest
+class LegacySchemaMigrationTest extends EmbeddedPostgresTest {
+
+    @TestConfiguration
+    static class LegacySchema {
+
+        // What Hibernate 6.2 ran for the baseline Customer entity, plus a row written back then.
+        @Bean
+        FlywayMigrationStrategy seedLegacySchemaFirst(DataSource dataSource) {
+            return flyway -> {
+                JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+                jdbc.execute("create table customers (id bigserial not null, email varchar(255) not null, "
+                        + "name varchar(150) not null, primary key (id))");
+                jdbc.execute("alter table if exists customers add constraint UK_rfbvkrffamfql7cjmen8v976v unique (email)");
+                jdbc.update("insert into customers (email, name) values ('old@example.com', 'Old Customer')");
+                flyway.migrate();
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private RefreshSessionRepository refreshSessions;
+
+    @Test
+    void baselinesAtV1AndAppliesTheLaterMigrations() {
+        List<String> applied = jdbcTemplate.queryForList(
+                "select version || ':' || type from flyway_schema_history where success order by installed_rank", String.class);
+        assertEquals(List.of("1:BASELINE", "2:SQL", "3:SQL", "4:SQL", "5:SQL"), applied);
+    }
+
+    @Test
+    void legacyDatabaseGetsTheObjectsAddedSince() {
+        assertEquals(List.of("uk_customer_email"), jdbcTemplate.queryForList(
+                "select conname from pg_constraint where conrelid = 'customers'::regclass and contype = 'u'", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from pg_indexes where tablename = 'customers' and indexname = 'idx_customer_name_id'", Integer.class));
+        assertEquals(50, jdbcTemplate.queryForObject(
+                "select increment_by from pg_sequences where sequencename = 'customers_id_seq'", Integer.class));
+
+        refreshSessions.insert(UUID.randomUUID().toString(), UUID.randomUUID().toString(), "admin",
+                Instant.now().plusSeconds(60));
+        assertEquals(1, refreshSessions.count());
+    }
+
+    @Test
+    void existingRowsKeepTheirIdsAndEmailsStayUnique() {
+        long id = customerService.createCustomer(
+                CustomerRequest.builder().name("New Customer").email("new@example.com").build()).getId();
+
+        assertTrue(id > 1, "new ids must come after the legacy rows, got " + id);
+        assertEquals("Old Customer", customerService.getCustomerById(1L).getName());
+        assertThrows(EmailAlreadyExistsException.class, () -> customerService.createCustomer(
+                CustomerRequest.builder().name("Again").email("old@example.com").build()));
+    }
+}
@@ -2,7 +2,9 @@ package com.hcl.customerservice.controller;
 
 import com.hcl.customerservice.dto.AuthenticationRequest;
 import com.hcl.customerservice.dto.AuthenticationResponse;
-import com.hcl.customerservice.security.JwtService;
+import com.hcl.customerservice.security.PasswordHashingBusyException;
+import com.hcl.customerservice.security.RefreshTokenService;
+import com.hcl.customerservice.security.TokenPair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -18,9 +20,12 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.Duration;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
@@ -31,7 +36,7 @@ class AuthControllerTest {
     @Mock
     private UserDetailsService userDetailsService;
     @Mock
-    private JwtService jwtService;
+    private RefreshTokenService refreshTokenService;
 
     @InjectMocks
     private AuthController controller;
@@ -49,18 +54,37 @@ class AuthControllerTest {
         AuthenticationRequest req = new AuthenticationRequest("admin","admin123");
         UserDetails user = User.withUsername("admin").password("pwd").roles("ADMIN").build();
         when(userDetailsService.loadUserByUsername("admin")).thenReturn(user);
-        when(jwtService.generateToken(user)).thenReturn("token");
+        when(refreshTokenService.issue(user)).thenReturn(new TokenPair("token", "refresh", Duration.ofMinutes(15)));
 
         String json = "{\"username\":\"admin\",\"password\":\"admin123\"}";
         mockMvc.perform(post("/api/v1/auth/login")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(json))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").value("token"));
+                .andExpect(jsonPath("$.token").value("token"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh"))
+                .andExpect(jsonPath("$.expiresIn").value(900));
 
         verify(authManager).authenticate(any(UsernamePasswordAuthenticationToken.class));
     }
 
+    @Test
+    void login_reusesAuthenticatedPrincipal() throws Exception {
+        UserDetails user = User.withUsername("admin").password("pwd").roles("ADMIN").build();
+        when(authManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
+                .thenReturn(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(refreshTokenService.issue(user)).thenReturn(new TokenPair("token", "refresh", Duration.ofMinutes(15)));
+
+        String json = "{\"username\":\"admin\",\"password\":\"admin123\"}";
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token"));
+
+        verifyNoInteractions(userDetailsService);
+    }
+
     @Test
     void login_badCredentials() throws Exception {
         doThrow(new BadCredentialsException("bad")).when(authManager)
@@ -71,4 +95,45 @@ class AuthControllerTest {
                 .content(json))
                 .andExpect(status().isUnauthorized());
     }
+
+    @Test
+    void login_hashingSaturated() throws Exception {
+        doThrow(new PasswordHashingBusyException("full")).when(authManager)
+                .authenticate(any(UsernamePasswordAuthenticationToken.class));
+        String json = "{\"username\":\"admin\",\"password\":\"admin123\"}";
+        mockMvc.perform(post("/api/v1/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"));
+    }
+
+    @Test
+    void refresh_rotatesTokens() throws Exception {
+        when(refreshTokenService.refresh("old")).thenReturn(new TokenPair("token2", "refresh2", Duration.ofMinutes(15)));
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"old\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("token2"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh2"));
+    }
+
+    @Test
+    void refresh_rejectsSpentToken() throws Exception {
+        when(refreshTokenService.refresh("spent")).thenThrow(new BadCredentialsException("Refresh token already used"));
+        mockMvc.perform(post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"spent\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void logout_revokesSession() throws Exception {
+        mockMvc.perform(post("/api/v1/auth/logout")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"refreshToken\":\"r\"}"))
+                .andExpect(status().isNoContent());
+        verify(refreshTokenService).revoke("r");
+    }
 }
@@ -2,7 +2,11 @@ package com.hcl.customerservice.controller;
 
 import com.hcl.customerservice.dto.CustomerRequest;
 import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerVersion;
+import com.hcl.customerservice.exception.PreconditionFailedException;
 import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.service.CustomerTypeaheadService;
+import com.hcl.customerservice.util.CustomerETags;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -11,12 +15,19 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableHandlerMethodArgumentResolver;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.util.Collections;
+import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -27,6 +38,9 @@ class CustomerControllerTest {
     @Mock
     private CustomerService service;
 
+    @Mock
+    private CustomerTypeaheadService typeaheadService;
+
     @InjectMocks
     private CustomerController controller;
 
@@ -35,7 +49,9 @@ class CustomerControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+                .setCustomArgumentResolvers(new PageableHandlerMethodArgumentResolver())
+                .build();
     }
 
     @Test
@@ -50,6 +66,82 @@ class CustomerControllerTest {
         verify(service).getCustomerById(1L);
     }
 
+    @Test
+    void getCustomer_sendsETagAndAnswers304FromTheVersionAlone() throws Exception {
+        CustomerResponse resp = CustomerResponse.builder().id(1L).name("A").email("a@b.com").version(3L).build();
+        when(service.getCustomerById(1L)).thenReturn(resp);
+        when(service.getCustomerVersion(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/api/v1/customers/1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.version").doesNotExist());
+        verify(service, never()).getCustomerVersion(1L);
+
+        mockMvc.perform(get("/api/v1/customers/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(service, times(1)).getCustomerById(1L);
+
+        mockMvc.perform(get("/api/v1/customers/1").header(HttpHeaders.IF_NONE_MATCH, "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void getAllCustomers_answers304FromTheLoadedPage() throws Exception {
+        String etag = CustomerETags.ofPage(1, List.of(new CustomerVersion(1L, 5L)));
+        when(service.getAllCustomers(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                CustomerResponse.builder().id(1L).name("A").email("a@b.com").version(5L).build())));
+
+        mockMvc.perform(get("/api/v1/customers").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/customers").header(HttpHeaders.IF_NONE_MATCH, "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+
+        verify(service, times(2)).getAllCustomers(any(Pageable.class));
+    }
+
+    @Test
+    void getAllCustomers_etagCoversTotalIdsAndVersions() {
+        Page<CustomerResponse> page = new PageImpl<>(List.of(
+                CustomerResponse.builder().id(1L).name("A").email("a@b.com").version(5L).build()));
+
+        assertEquals(CustomerETags.ofPage(1, List.of(new CustomerVersion(1L, 5L))), CustomerETags.ofPage(page));
+        assertNotEquals(CustomerETags.ofPage(1, List.of(new CustomerVersion(1L, 6L))), CustomerETags.ofPage(page));
+        assertNotEquals(CustomerETags.ofPage(2, List.of(new CustomerVersion(1L, 5L))), CustomerETags.ofPage(page));
+    }
+
+    @Test
+    void updateAndDelete_passTheIfMatchVersion() throws Exception {
+        CustomerResponse resp = CustomerResponse.builder().id(1L).name("A").email("a@b.com").version(4L).build();
+        when(service.updateCustomer(eq(1L), any(CustomerRequest.class), eq(3L))).thenReturn(resp);
+
+        mockMvc.perform(put("/api/v1/customers/1").header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"A\",\"email\":\"a@b.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""));
+        mockMvc.perform(delete("/api/v1/customers/1").header(HttpHeaders.IF_MATCH, "*"))
+                .andExpect(status().isNoContent());
+
+        verify(service).deleteCustomer(1L, null);
+        assertThrows(PreconditionFailedException.class, () -> CustomerETags.requiredVersion("W/\"3\""));
+    }
+
+    @Test
+    void upsertCustomer_sendsTheETagOfTheWrittenRow() throws Exception {
+        CustomerResponse resp = CustomerResponse.builder().id(1L).name("A").email("a@b.com").version(2L).build();
+        when(service.upsertCustomerByEmail(any(CustomerRequest.class))).thenReturn(resp);
+
+        mockMvc.perform(put("/api/v1/customers/by-email")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"A\",\"email\":\"a@b.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+    }
+
     @Test
     void getAllCustomers_callsService() throws Exception {
         Page<CustomerResponse> page = new PageImpl<>(Collections.singletonList(
@@ -63,6 +155,18 @@ class CustomerControllerTest {
         verify(service).getAllCustomers(any(Pageable.class));
     }
 
+    @Test
+    void suggestCustomers_capsTheLimit() throws Exception {
+        when(typeaheadService.suggest("ann", 50)).thenReturn(List.of(
+                CustomerResponse.builder().id(1L).name("Ann").email("ann@b.com").build()));
+
+        mockMvc.perform(get("/api/v1/customers/typeahead").param("q", "ann").param("limit", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Ann"));
+
+        verify(typeaheadService).suggest("ann", 50);
+    }
+
     @Test
     void createCustomer_callsService() throws Exception {
         CustomerRequest req = CustomerRequest.builder().name("A").email("a@b.com").build();
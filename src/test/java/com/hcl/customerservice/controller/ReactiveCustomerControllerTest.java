@@ -0,0 +1,76 @@
+package com.hcl.customerservice.controller;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.exception.CustomerNotFoundException;
+import com.hcl.customerservice.exception.ReactiveExceptionHandler;
+import com.hcl.customerservice.service.ReactiveCustomerService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.mockito.Mockito.*;
+
+class ReactiveCustomerControllerTest {
+
+    @Mock
+    private ReactiveCustomerService service;
+
+    @InjectMocks
+    private ReactiveCustomerController controller;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        client = WebTestClient.bindToController(controller)
+                .controllerAdvice(new ReactiveExceptionHandler())
+                .build();
+    }
+
+    @Test
+    void getCustomer_callsService() {
+        when(service.getCustomerById(1L)).thenReturn(Mono.just(
+                CustomerResponse.builder().id(1L).name("A").email("a@b.com").build()));
+
+        client.get().uri("/api/v1/customers/1").exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.id").isEqualTo(1);
+    }
+
+    @Test
+    void getCustomer_notFoundMapsTo404() {
+        when(service.getCustomerById(1L)).thenReturn(Mono.error(new CustomerNotFoundException(1L)));
+
+        client.get().uri("/api/v1/customers/1").exchange()
+                .expectStatus().isNotFound()
+                .expectBody().jsonPath("$.status").isEqualTo(404);
+    }
+
+    @Test
+    void streamCustomers_emitsNdjson() {
+        when(service.streamCustomers()).thenReturn(Flux.just(
+                CustomerResponse.builder().id(1L).name("A").email("a@b.com").build(),
+                CustomerResponse.builder().id(2L).name("B").email("b@b.com").build()));
+
+        client.get().uri("/api/v1/customers").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectBodyList(CustomerResponse.class).hasSize(2);
+    }
+
+    @Test
+    void createCustomer_invalidBodyIs400() {
+        client.post().uri("/api/v1/customers")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"\",\"email\":\"nope\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+        verifyNoInteractions(service);
+    }
+}
@@ -0,0 +1,121 @@
+package com.hcl.customerservice.datasource;
+
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * The "replica" is the same embedded PostgreSQL reached with another application_name, which tells
+ * the routes apart; a second replica URL points at a port nothing listens on.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.connection-timeout=1000",
+        "customer.datasource.replicas.lag-check-interval=200ms"
+})
+@DirtiesContext
+class ReadWriteRoutingTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaSet replicas;
+
+    @Autowired
+    private ReadWriteRoutingDataSource routing;
+
+    @Autowired
+    private CustomerService service;
+
+    @DynamicPropertySource
+    static void replicas(DynamicPropertyRegistry registry) {
+        registry.add("customer.datasource.replicas.urls",
+                () -> jdbcUrl() + "&ApplicationName=replica,jdbc:postgresql://localhost:1/postgres");
+    }
+
+    @BeforeEach
+    void awaitFirstProbe() throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!replicas.replicas().get(0).isAvailable()) {
+            if (System.nanoTime() > deadline) {
+                fail("Replica not available within 10s");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    @AfterEach
+    void clearUser() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToAReplicaAndWritesToThePrimary() {
+        for (int i = 0; i < 4; i++) {
+            assertEquals("replica", applicationName(true));
+        }
+        assertFalse("replica".equals(applicationName(false)));
+        assertFalse(replicas.replicas().get(1).isAvailable());
+    }
+
+    @Test
+    void jpaReadsAreRoutedWhenTheirFirstStatementRuns() {
+        long before = routing.routed(ReadWriteRoutingDataSource.Route.REPLICA);
+
+        service.getAllCustomers(PageRequest.of(0, 10));
+
+        assertTrue(routing.routed(ReadWriteRoutingDataSource.Route.REPLICA) > before);
+    }
+
+    @Test
+    void aUserReadsTheirOwnWritesFromThePrimary() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("writer", null, List.of()));
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                jdbcTemplate.update("insert into customers (id, name, email) values (nextval('customers_id_seq'), 'Sticky Writer', 'sticky@example.com')"));
+
+        assertFalse("replica".equals(applicationName(true)));
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("reader", null, List.of()));
+        assertEquals("replica", applicationName(true));
+    }
+
+    @Test
+    void onPrimaryKeepsReadOnlyTransactionsOffTheReplicas() {
+        String[] name = new String[1];
+        ReadWriteRoutingDataSource.onPrimary(() -> name[0] = applicationName(true));
+
+        assertFalse("replica".equals(name[0]));
+    }
+
+    private String applicationName(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                jdbcTemplate.queryForObject("select current_setting('application_name')", String.class));
+    }
+}
@@ -0,0 +1,38 @@
+package com.hcl.customerservice.exception;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExceptionMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExceptionMetrics metrics = new ExceptionMetrics(registry);
+
+    @Test
+    void countsByExceptionTypeAndStatus() {
+        metrics.record(new CustomerNotFoundException(1L), HttpStatus.NOT_FOUND);
+        metrics.record(new CustomerNotFoundException(2L), HttpStatus.NOT_FOUND);
+        metrics.record(new IllegalStateException(), HttpStatus.INTERNAL_SERVER_ERROR);
+
+        assertEquals(2.0, counter("CustomerNotFoundException", "404").count());
+        assertEquals(1.0, counter("IllegalStateException", "500").count());
+    }
+
+    @Test
+    void registersEachCounterOnce() {
+        metrics.record(new CustomerNotFoundException(1L), HttpStatus.NOT_FOUND);
+        Counter first = counter("CustomerNotFoundException", "404");
+        metrics.record(new CustomerNotFoundException(2L), HttpStatus.NOT_FOUND);
+
+        assertSame(first, counter("CustomerNotFoundException", "404"));
+        assertEquals(1, registry.find(ExceptionMetrics.METER_NAME).counters().size());
+    }
+
+    private Counter counter(String exception, String status) {
+        return registry.get(ExceptionMetrics.METER_NAME).tag("exception", exception).tag("status", status).counter();
+    }
+}
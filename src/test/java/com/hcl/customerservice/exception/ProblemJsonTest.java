@@ -0,0 +1,56 @@
+package com.hcl.customerservice.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProblemJsonTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void rendersProblemDetails() throws Exception {
+        ResponseEntity<byte[]> response = ProblemJson.response(HttpStatus.NOT_FOUND,
+                "Customer with id 99 not found", "/api/v1/customers/99");
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_PROBLEM_JSON, response.getHeaders().getContentType());
+        JsonNode body = mapper.readTree(response.getBody());
+        assertEquals("about:blank", body.get("type").asText());
+        assertEquals("Not Found", body.get("title").asText());
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("Customer with id 99 not found", body.get("detail").asText());
+        assertEquals("/api/v1/customers/99", body.get("instance").asText());
+    }
+
+    @Test
+    void escapesDetailAndErrors() throws Exception {
+        String email = "\"quoted\"\\back\nline\u0001@example.com";
+        Map<String, String> errors = new LinkedHashMap<>();
+        errors.put("email", "must be a \"well-formed\" email address");
+        errors.put("name", null);
+
+        byte[] json = ProblemJson.render(HttpStatus.CONFLICT, "Email already in use: " + email, "/api/v1/customers", errors);
+
+        JsonNode body = mapper.readTree(json);
+        assertEquals("Email already in use: " + email, body.get("detail").asText());
+        assertEquals("must be a \"well-formed\" email address", body.get("errors").get("email").asText());
+        assertTrue(body.get("errors").get("name").isNull());
+    }
+
+    @Test
+    void businessExceptionsSkipStackTraces() {
+        BusinessException ex = new CustomerNotFoundException(99L);
+
+        assertEquals(0, ex.getStackTrace().length);
+        assertEquals("Customer with id 99 not found", ex.getMessage());
+    }
+}
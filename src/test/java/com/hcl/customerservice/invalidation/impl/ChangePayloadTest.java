@@ -0,0 +1,52 @@
+package com.hcl.customerservice.invalidation.impl;
+
+import com.hcl.customerservice.invalidation.CustomerChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangePayloadTest {
+
+    @Test
+    void roundTripsChangesAndDeletions() {
+        List<CustomerChange> changes = List.of(new CustomerChange(17, 3), CustomerChange.deleted(18));
+
+        List<String> payloads = ChangePayload.encode("node-a", changes);
+
+        assertEquals(List.of("node-a|17:3,18:-1"), payloads);
+        ChangePayload.Decoded decoded = ChangePayload.decode(payloads.get(0));
+        assertEquals("node-a", decoded.node());
+        assertEquals(changes, decoded.changes());
+        assertTrue(decoded.changes().get(1).isDeleted());
+    }
+
+    @Test
+    void splitsLargeTransactionsUnderTheNotifyLimit() {
+        List<CustomerChange> changes = new ArrayList<>();
+        for (long id = 1_000_000_000L; id < 1_000_005_000L; id++) {
+            changes.add(new CustomerChange(id, 12));
+        }
+
+        List<String> payloads = ChangePayload.encode("node-a", changes);
+
+        assertTrue(payloads.size() > 1);
+        List<CustomerChange> decoded = new ArrayList<>();
+        for (String payload : payloads) {
+            assertTrue(payload.length() <= ChangePayload.MAX_LENGTH);
+            decoded.addAll(ChangePayload.decode(payload).changes());
+        }
+        assertEquals(changes, decoded);
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        assertThrows(IllegalArgumentException.class, () -> ChangePayload.decode("no sender"));
+        assertThrows(IllegalArgumentException.class, () -> ChangePayload.decode("node|17"));
+        assertThrows(IllegalArgumentException.class, () -> ChangePayload.decode("node|x:1"));
+    }
+}
@@ -0,0 +1,150 @@
+package com.hcl.customerservice.invalidation.impl;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.typeahead.CustomerTypeaheadIndex;
+import com.hcl.customerservice.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plays "another instance" against a real PostgreSQL: its notifications are sent with a publisher
+ * that has a different node id, and the listener of this context has to act on them.
+ */
+@SpringBootTest(properties = {
+        "customer.invalidation.enabled=true",
+        "customer.invalidation.heartbeat=200ms",
+        "customer.invalidation.max-backoff=500ms",
+        "customer.typeahead.enabled=true"
+})
+@DirtiesContext
+class CustomerInvalidationTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private CustomerService service;
+
+    @Autowired
+    private CustomerCache cache;
+
+    @Autowired
+    private CustomerTypeaheadIndex typeahead;
+
+    @Autowired
+    private PgNotifyChangeListener listener;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void anotherInstancesUpdateReachesCacheAndTypeahead() {
+        Long id = service.createCustomer(request("Ada Byron", "ada@example.com")).getId();
+        assertEquals("Ada Byron", service.getCustomerById(id).getName());
+
+        otherInstance(other -> {
+            jdbcTemplate.update("update customers set name = 'Ada Lovelace', version = version + 1 where id = ?", id);
+            other.changed(id, 1);
+        });
+
+        await(() -> "Ada Lovelace".equals(service.getCustomerById(id).getName()));
+        await(() -> !typeahead.lookup("lovelace", 10).isEmpty());
+        assertTrue(typeahead.lookup("byron", 10).isEmpty());
+    }
+
+    @Test
+    void lateNotificationDoesNotEvictANewerCopy() {
+        cache.put(cached(9001L, "fresh@example.com", 5));
+        cache.put(cached(9002L, "stale@example.com", 0));
+
+        otherInstance(other -> {
+            other.changed(9001L, 4);
+            other.changed(9002L, 1);
+        });
+
+        await(() -> cache.getIfPresent(9002L) == null);
+        assertNotNull(cache.getIfPresent(9001L));
+    }
+
+    @Test
+    void rolledBackWritesAreNotAnnounced() {
+        cache.put(cached(9003L, "rolled-back@example.com", 0));
+        cache.put(cached(9004L, "committed@example.com", 0));
+        PgNotifyCustomerChangePublisher other = new PgNotifyCustomerChangePublisher(dataSource, "customer_changes", "other");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            other.changed(9003L, 1);
+            status.setRollbackOnly();
+        });
+        otherInstance(publisher -> publisher.changed(9004L, 1));
+
+        await(() -> cache.getIfPresent(9004L) == null);
+        assertNotNull(cache.getIfPresent(9003L));
+    }
+
+    @Test
+    void resynchronisesAfterTheChannelDrops() {
+        Long id = service.createCustomer(request("Grace Hopper", "grace@example.com")).getId();
+        service.getCustomerById(id);
+        // Written without a notification: only a reload can find it.
+        jdbcTemplate.update("insert into customers (id, name, email) values (nextval('customers_id_seq'), 'Unannounced Row', 'unannounced@example.com')");
+        assertTrue(typeahead.lookup("unannounced", 10).isEmpty());
+
+        Integer terminated = jdbcTemplate.queryForObject("select count(*) from (select pg_terminate_backend(pid) from pg_stat_activity"
+                + " where application_name = 'customer-service-listener') t", Integer.class);
+        assertEquals(1, terminated);
+
+        await(() -> typeahead.isReady() && !typeahead.lookup("unannounced", 10).isEmpty());
+        assertTrue(listener.isConnected());
+        assertNull(cache.getIfPresent(id));
+    }
+
+    private void otherInstance(Consumer<PgNotifyCustomerChangePublisher> writes) {
+        PgNotifyCustomerChangePublisher other = new PgNotifyCustomerChangePublisher(dataSource, "customer_changes", "other");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> writes.accept(other));
+    }
+
+    private static CustomerRequest request(String name, String email) {
+        return CustomerRequest.builder().name(name).email(email).build();
+    }
+
+    private static CustomerResponse cached(long id, String email, long version) {
+        return CustomerResponse.builder().id(id).name("Cached").email(email).version(version).build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                fail("Condition not met within 10s");
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fail(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.hcl.customerservice.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpectedErrorSamplingFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        LoggerContext context = new LoggerContext();
+        ExpectedErrorSamplingFilter filter = new ExpectedErrorSamplingFilter();
+        filter.setMaxPerInterval(3);
+        filter.setIntervalMillis(1_000);
+        filter.clock = now::get;
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        appender.setContext(context);
+        appender.start();
+        logger = context.getLogger("test");
+        logger.addAppender(appender);
+    }
+
+    @Test
+    void capsExpectedEventsPerTemplateAndWindow() {
+        for (int i = 0; i < 10; i++) {
+            logger.info(LogMarkers.EXPECTED, "Customer not found: {}", i);
+        }
+        logger.info(LogMarkers.EXPECTED, "Email conflict: {}", "a@b.com");
+        assertEquals(4, appender.list.size());
+
+        now.addAndGet(1_000);
+        logger.info(LogMarkers.EXPECTED, "Customer not found: {}", 99);
+        assertEquals(5, appender.list.size());
+        assertEquals("Customer not found: 99", appender.list.get(4).getFormattedMessage());
+    }
+
+    @Test
+    void leavesUnmarkedEventsAlone() {
+        for (int i = 0; i < 10; i++) {
+            logger.error("Unexpected error {}", i);
+        }
+        assertEquals(10, appender.list.size());
+    }
+}
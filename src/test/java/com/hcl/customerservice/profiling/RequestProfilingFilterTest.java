@@ -0,0 +1,78 @@
+package com.hcl.customerservice.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RequestProfilingFilterTest {
+
+    private final EndpointProfileRegistry registry = new EndpointProfileRegistry();
+    private final RequestProfilingFilter filter = new RequestProfilingFilter(registry);
+
+    @Test
+    void recordsStatementsInHeadersAndPerEndpoint() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers/7");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        DataSource dataSource = profiledDataSource();
+        filter.doFilter(request, response, (req, res) -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.prepareStatement("select 1").executeQuery();
+                connection.createStatement().execute("select 2");
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/customers/{id}");
+        });
+
+        assertEquals("2", response.getHeader(RequestProfilingFilter.QUERY_COUNT_HEADER));
+        assertTrue(response.getHeader(RequestProfilingFilter.SERVER_TIMING_HEADER).contains("2 statements"));
+        EndpointProfileRegistry.EndpointProfile profile = registry.snapshot().get("GET /api/v1/customers/{id}");
+        assertEquals(1, profile.requests());
+        assertEquals(2, profile.maxStatements());
+        assertNull(RequestProfiler.current());
+    }
+
+    @Test
+    void headersWrittenBeforeBodyCommits() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/customers");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.getWriter().write("[]");
+            res.flushBuffer();
+        });
+
+        assertTrue(response.isCommitted());
+        assertEquals("0", response.getHeader(RequestProfilingFilter.QUERY_COUNT_HEADER));
+        assertNotNull(registry.snapshot().get("GET unmapped"));
+    }
+
+    @Test
+    void dataSourceIgnoresThreadsWithoutProfile() throws Exception {
+        try (Connection connection = profiledDataSource().getConnection()) {
+            assertDoesNotThrow(() -> connection.prepareStatement("select 1").executeQuery());
+        }
+    }
+
+    private static DataSource profiledDataSource() throws SQLException {
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(target.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString())).thenReturn(mock(PreparedStatement.class));
+        when(connection.createStatement()).thenReturn(mock(Statement.class));
+        return new ProfilingDataSource(target);
+    }
+}
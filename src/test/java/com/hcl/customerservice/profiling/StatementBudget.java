@@ -0,0 +1,60 @@
+package com.hcl.customerservice.profiling;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Fails the calling test when a block issues more JDBC statements than its declared budget.
+ * Needs customer.profiling.enabled=true so the DataSource is wrapped for counting.
+ */
+public final class StatementBudget {
+
+    private StatementBudget() {
+    }
+
+    public static <T> T assertAtMost(int maxStatements, Callable<T> block) {
+        RequestProfile profile = RequestProfiler.start();
+        T result;
+        try {
+            result = block.call();
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new AssertionError(ex);
+        } finally {
+            RequestProfiler.stop();
+        }
+        check(maxStatements, profile);
+        return result;
+    }
+
+    public static void assertAtMost(int maxStatements, Runnable block) {
+        assertAtMost(maxStatements, () -> {
+            block.run();
+            return null;
+        });
+    }
+
+    /** Like {@link #assertAtMost(int, Runnable)} for blocks expected to throw; returns the exception. */
+    public static <X extends Throwable> X assertThrowsWithin(int maxStatements, Class<X> expected, Runnable block) {
+        RequestProfile profile = RequestProfiler.start();
+        try {
+            block.run();
+        } catch (Throwable ex) {
+            assertTrue(expected.isInstance(ex), () -> "Expected " + expected.getSimpleName() + " but got " + ex);
+            check(maxStatements, profile);
+            return expected.cast(ex);
+        } finally {
+            RequestProfiler.stop();
+        }
+        return fail("Expected " + expected.getSimpleName() + " to be thrown");
+    }
+
+    private static void check(int maxStatements, RequestProfile profile) {
+        if (profile.getStatementCount() > maxStatements) {
+            fail("Statement budget exceeded: " + profile.getStatementCount() + " statements, budget " + maxStatements);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.hcl.customerservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CachingPasswordEncoderTest {
+
+    private final ExecutorService executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1));
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void cachesSuccessfulVerificationsOnly() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches("secret", "{bcrypt}hash")).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, executor, 100, Duration.ofMinutes(5));
+
+        assertTrue(encoder.matches("secret", "{bcrypt}hash"));
+        assertTrue(encoder.matches("secret", "{bcrypt}hash"));
+        assertFalse(encoder.matches("wrong", "{bcrypt}hash"));
+        assertFalse(encoder.matches("wrong", "{bcrypt}hash"));
+
+        verify(delegate, times(1)).matches("secret", "{bcrypt}hash");
+        verify(delegate, times(2)).matches("wrong", "{bcrypt}hash");
+        assertEquals(1, encoder.cachedVerifications());
+    }
+
+    @Test
+    void changedStoredHashMissesCache() {
+        PasswordEncoder delegate = mock(PasswordEncoder.class);
+        when(delegate.matches(any(), anyString())).thenReturn(true);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(delegate, executor, 100, Duration.ofMinutes(5));
+
+        encoder.matches("secret", "{bcrypt}old");
+        encoder.matches("secret", "{bcrypt}new");
+
+        verify(delegate).matches("secret", "{bcrypt}old");
+        verify(delegate).matches("secret", "{bcrypt}new");
+    }
+
+    @Test
+    void rejectsWhenHashingPoolIsSaturated() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocker = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocker);
+        executor.execute(blocker);
+        CachingPasswordEncoder encoder = new CachingPasswordEncoder(mock(PasswordEncoder.class), executor, 100, Duration.ofMinutes(5));
+
+        assertThrows(PasswordHashingBusyException.class, () -> encoder.matches("secret", "{bcrypt}hash"));
+        release.countDown();
+    }
+
+    @Test
+    void upgradesLegacyAndCheaperHashes() {
+        DelegatingPasswordEncoder current = PasswordEncoderConfig.delegatingEncoder("bcrypt", 12, 1000);
+        String cheapBcrypt = PasswordEncoderConfig.delegatingEncoder("bcrypt", 4, 1000).encode("secret");
+        String pbkdf2 = PasswordEncoderConfig.delegatingEncoder("pbkdf2", 4, 1000).encode("secret");
+
+        assertTrue(current.matches("secret", cheapBcrypt));
+        assertTrue(current.matches("secret", pbkdf2));
+        assertTrue(current.upgradeEncoding(cheapBcrypt));
+        assertTrue(current.upgradeEncoding(pbkdf2));
+        assertFalse(current.upgradeEncoding(PasswordEncoderConfig.delegatingEncoder("bcrypt", 12, 1000).encode("secret")));
+    }
+}
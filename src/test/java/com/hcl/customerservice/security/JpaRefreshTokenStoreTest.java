@@ -0,0 +1,55 @@
+package com.hcl.customerservice.security;
+
+import com.hcl.customerservice.repository.RefreshSessionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class JpaRefreshTokenStoreTest {
+
+    private RefreshSessionRepository repository;
+    private JpaRefreshTokenStore store;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RefreshSessionRepository.class);
+        when(repository.findRevokedFamilies(any(Instant.class))).thenReturn(List.of("f1"));
+        // Long intervals: the scheduler runs one initial sync and nothing else.
+        store = new JpaRefreshTokenStore(repository, Duration.ofHours(1), Duration.ofDays(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void syncReloadsRevokedFamiliesWithoutPurging() {
+        store.sync();
+
+        assertTrue(store.isRevoked("f1"));
+        verify(repository, never()).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void purgeDeletesExpiredSessions() {
+        store.purge();
+
+        verify(repository).deleteExpired(any(Instant.class));
+    }
+
+    @Test
+    void failedPurgeIsSwallowed() {
+        when(repository.deleteExpired(any(Instant.class))).thenThrow(new IllegalStateException("down"));
+
+        assertDoesNotThrow(store::purge);
+    }
+}
@@ -0,0 +1,106 @@
+package com.hcl.customerservice.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    private JwtService jwtService;
+    @Mock
+    private UserDetailsService userDetailsService;
+    @Mock
+    private VerifiedTokenCache tokenCache;
+    @Mock
+    private RefreshTokenStore tokenStore;
+
+    @InjectMocks
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void cachedTokenSkipsParsing() throws Exception {
+        VerifiedToken verified = new VerifiedToken("bob", List.of("ROLE_USER"), Instant.now().plusSeconds(60));
+        when(tokenCache.get("tok")).thenReturn(verified);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+
+        filter.doFilter(bearer("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        verify(jwtService, never()).parseToken(anyString());
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void statelessModeBuildsPrincipalFromClaims() throws Exception {
+        VerifiedToken verified = new VerifiedToken("bob", List.of("ROLE_ADMIN"), Instant.now().plusSeconds(60));
+        when(jwtService.parseToken("tok")).thenReturn(verified);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+
+        filter.doFilter(bearer("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        assertEquals("bob", auth.getName());
+        assertEquals(AuthorityUtils.createAuthorityList("ROLE_ADMIN"), List.copyOf(auth.getAuthorities()));
+        verify(tokenCache).put("tok", verified);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    void revokedSessionIsRejected() throws Exception {
+        VerifiedToken verified = new VerifiedToken("bob", List.of("ROLE_USER"), Instant.now().plusSeconds(60),
+                "jti", "fam", VerifiedToken.ACCESS);
+        when(tokenCache.get("tok")).thenReturn(verified);
+        when(tokenStore.isRevoked("fam")).thenReturn(true);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+
+        filter.doFilter(bearer("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void refreshTokenIsNotABearerToken() throws Exception {
+        VerifiedToken verified = new VerifiedToken("bob", List.of("ROLE_USER"), Instant.now().plusSeconds(60),
+                "jti", "fam", VerifiedToken.REFRESH);
+        when(tokenCache.get("tok")).thenReturn(verified);
+        ReflectionTestUtils.setField(filter, "statelessPrincipal", true);
+
+        filter.doFilter(bearer("tok"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    private static MockHttpServletRequest bearer(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+}
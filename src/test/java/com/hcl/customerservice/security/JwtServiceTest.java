@@ -1,10 +1,33 @@
 package com.hcl.customerservice.security;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class JwtServiceTest {
@@ -22,7 +45,7 @@ class JwtServiceTest {
     @Test
     void generateAndValidateToken() {
         UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
-        String token = jwtService.generateToken(user);
+        String token = accessToken(user);
         assertNotNull(token);
         assertEquals("bob", jwtService.extractUsername(token));
         assertTrue(jwtService.validateToken(token, user));
@@ -33,7 +56,112 @@ class JwtServiceTest {
         jwtService.expiration = -1000; // already expired
         jwtService.init();
         UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
-        String token = jwtService.generateToken(user);
+        String token = accessToken(user);
         assertFalse(jwtService.validateToken(token, user));
     }
+
+    @Test
+    void parseTokenReturnsSubjectRolesAndExpiry() {
+        UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
+        String token = accessToken(user);
+        VerifiedToken verified = jwtService.parseToken(token);
+        assertEquals("bob", verified.subject());
+        assertEquals(List.of("ROLE_USER"), verified.roles());
+        assertFalse(verified.isExpired(Instant.now()));
+    }
+
+    @Test
+    void parseIsTimedByOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        jwtService.meterRegistry = registry;
+        jwtService.init();
+        UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
+        String token = accessToken(user);
+
+        jwtService.parseToken(token);
+        assertThrows(Exception.class, () -> jwtService.parseToken(token + "x"));
+
+        assertEquals(1, registry.get("jwt.generate").timer().count());
+        assertEquals(1, registry.get("jwt.parse").tag("outcome", "valid").timer().count());
+        assertEquals(1, registry.get("jwt.parse").tag("outcome", "invalid").timer().count());
+    }
+
+    @Test
+    void rs256TokensCarryKidAndVerifyAgainstPublishedJwks(@TempDir Path keys) throws Exception {
+        writeKeyPair(keys, "k1", Keys.keyPairFor(SignatureAlgorithm.RS256));
+        useKeys("RS256", keys, "k1");
+        UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
+
+        String token = accessToken(user);
+
+        assertEquals("bob", jwtService.parseToken(token).subject());
+        JsonNode jwk = new ObjectMapper().readTree(jwtService.getJwks()).get("keys").get(0);
+        assertEquals("k1", jwk.get("kid").asText());
+        assertEquals("RSA", jwk.get("kty").asText());
+        PublicKey published = KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("n").asText())),
+                new BigInteger(1, Base64.getUrlDecoder().decode(jwk.get("e").asText()))));
+        Jws<Claims> verified = Jwts.parserBuilder().setSigningKey(published).build().parseClaimsJws(token);
+        assertEquals("k1", verified.getHeader().getKeyId());
+    }
+
+    @Test
+    void retiredKeyStillVerifiesAfterRotation(@TempDir Path keys) throws Exception {
+        writeKeyPair(keys, "old", Keys.keyPairFor(SignatureAlgorithm.ES256));
+        writeKeyPair(keys, "new", Keys.keyPairFor(SignatureAlgorithm.ES256));
+        useKeys("ES256", keys, "old");
+        UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
+        String oldToken = accessToken(user);
+
+        Files.delete(keys.resolve("old.key.pem"));
+        useKeys("ES256", keys, "new");
+
+        assertEquals("bob", jwtService.parseToken(oldToken).subject());
+        assertEquals("new", Jwts.parserBuilder().build().parseClaimsJwt(unsigned(accessToken(user)))
+                .getHeader().get("kid"));
+        assertEquals(2, new ObjectMapper().readTree(jwtService.getJwks()).get("keys").size());
+    }
+
+    @Test
+    void asymmetricModeRejectsHs256AndUnknownKids() {
+        UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
+        String hs256Token = accessToken(user);
+        jwtService.algorithm = "RS256";
+        jwtService.init();
+        String otherInstanceToken = accessToken(user);
+        jwtService.init(); // no key location: a fresh key pair and kid per init
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(hs256Token));
+        assertThrows(JwtException.class, () -> jwtService.parseToken(otherInstanceToken));
+    }
+
+    // Signs an access token the way RefreshTokenService does at login.
+    private String accessToken(UserDetails user) {
+        List<String> roles = user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+        return jwtService.generateToken(user.getUsername(), roles, VerifiedToken.ACCESS, UUID.randomUUID().toString(),
+                UUID.randomUUID().toString(), Instant.now().plus(jwtService.getAccessTokenTtl()));
+    }
+
+    private void useKeys(String algorithm, Path location, String activeKid) {
+        jwtService.algorithm = algorithm;
+        jwtService.keyLocation = location.toString();
+        jwtService.activeKid = activeKid;
+        jwtService.init();
+    }
+
+    private static void writeKeyPair(Path dir, String kid, KeyPair pair) throws Exception {
+        Files.writeString(dir.resolve(kid + ".pub.pem"), pem("PUBLIC KEY", pair.getPublic().getEncoded()));
+        Files.writeString(dir.resolve(kid + ".key.pem"), pem("PRIVATE KEY", pair.getPrivate().getEncoded()));
+    }
+
+    private static String pem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes()).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    // Drops the signature so the header can be read without the key.
+    private static String unsigned(String token) {
+        return token.substring(0, token.lastIndexOf('.') + 1);
+    }
 }
@@ -0,0 +1,94 @@
+package com.hcl.customerservice.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RefreshTokenServiceTest {
+
+    private final UserDetails user = User.withUsername("bob").password("pwd").roles("USER").build();
+
+    private RefreshTokenService service;
+    private InMemoryRefreshTokenStore store;
+    private JwtService jwtService;
+    private SimpleMeterRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        jwtService.secret = "test-secret-key-test-secret-key-test";
+        jwtService.expiration = 900000;
+        jwtService.init();
+        store = new InMemoryRefreshTokenStore();
+        registry = new SimpleMeterRegistry();
+        service = new RefreshTokenService();
+        service.jwtService = jwtService;
+        service.store = store;
+        service.meterRegistry = registry;
+        service.init();
+    }
+
+    @Test
+    void refreshRotatesWithinTheSameFamily() {
+        TokenPair login = service.issue(user);
+        TokenPair refreshed = service.refresh(login.refreshToken());
+
+        VerifiedToken access = jwtService.parseToken(refreshed.accessToken());
+        assertEquals("bob", access.subject());
+        assertEquals(List.of("ROLE_USER"), access.roles());
+        assertEquals(VerifiedToken.ACCESS, access.use());
+        assertEquals(jwtService.parseToken(login.accessToken()).family(), access.family());
+        assertNotEquals(login.refreshToken(), refreshed.refreshToken());
+        assertEquals(1, registry.get("auth.tokens.issued").tag("grant", "refresh_token").counter().count());
+    }
+
+    @Test
+    void reusingASpentRefreshTokenRevokesTheFamily() {
+        TokenPair login = service.issue(user);
+        TokenPair refreshed = service.refresh(login.refreshToken());
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh(login.refreshToken()));
+
+        String family = jwtService.parseToken(refreshed.accessToken()).family();
+        assertTrue(store.isRevoked(family));
+        assertThrows(BadCredentialsException.class, () -> service.refresh(refreshed.refreshToken()));
+        assertEquals(1, registry.get("auth.refresh.reuse").counter().count());
+    }
+
+    @Test
+    void unknownSessionIsRejectedWithoutCountingReuse() {
+        TokenPair login = service.issue(user);
+        // A restart of the in-memory store, or a refresh landing on another instance.
+        service.store = new InMemoryRefreshTokenStore();
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh(login.refreshToken()));
+
+        assertFalse(service.store.isRevoked(jwtService.parseToken(login.accessToken()).family()));
+        assertEquals(0, registry.get("auth.refresh.reuse").counter().count());
+    }
+
+    @Test
+    void accessTokenIsNotARefreshToken() {
+        TokenPair login = service.issue(user);
+
+        assertThrows(BadCredentialsException.class, () -> service.refresh(login.accessToken()));
+        assertThrows(BadCredentialsException.class, () -> service.refresh("garbage"));
+    }
+
+    @Test
+    void logoutRevokesFamily() {
+        TokenPair login = service.issue(user);
+
+        service.revoke(login.refreshToken());
+
+        assertTrue(store.isRevoked(jwtService.parseToken(login.accessToken()).family()));
+        assertThrows(BadCredentialsException.class, () -> service.refresh(login.refreshToken()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.hcl.customerservice.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VerifiedTokenCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new VerifiedTokenCache();
+        cache.maxSize = 10;
+        cache.clock = Clock.fixed(NOW, ZoneOffset.UTC);
+    }
+
+    @Test
+    void returnsCachedEntryUntilExpiry() {
+        VerifiedToken token = new VerifiedToken("bob", List.of("ROLE_USER"), NOW.plusSeconds(60));
+        cache.put("abc", token);
+        assertSame(token, cache.get("abc"));
+
+        cache.clock = Clock.fixed(NOW.plusSeconds(61), ZoneOffset.UTC);
+        assertNull(cache.get("abc"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void staysWithinMaxSize() {
+        for (int i = 0; i < 50; i++) {
+            cache.put("token-" + i, new VerifiedToken("u" + i, List.of(), NOW.plusSeconds(60)));
+        }
+        assertTrue(cache.size() <= 10);
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        cache.enabled = false;
+        cache.put("abc", new VerifiedToken("bob", List.of(), NOW.plusSeconds(60)));
+        assertNull(cache.get("abc"));
+    }
+}
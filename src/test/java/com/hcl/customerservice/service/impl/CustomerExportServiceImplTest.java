@@ -0,0 +1,125 @@
+package com.hcl.customerservice.service.impl;
+
+import com.hcl.customerservice.dto.CustomerFileFormat;
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.service.CustomerExportService;
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports from a real PostgreSQL: the CSV and NDJSON bodies, and that the rows come through a
+ * read-only transaction with autocommit off, which PgJDBC needs to honour the fetch size.
+ */
+@SpringBootTest(properties = {
+        "customer.export.fetch-size=2"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerExportServiceImplTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private CustomerExportService exportService;
+
+    @Autowired
+    private CustomerService service;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private List<Long> ids;
+
+    @BeforeAll
+    void seed() {
+        ids = List.of(
+                create("Ada Lovelace", "ada@example.com"),
+                create("Smith, \"Jr\"", "smith@example.com"),
+                create("Zo\u00eb", "zoe@example.com"));
+    }
+
+    @Test
+    void csvHasAHeaderAndQuotesWhereNeeded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, exportService.exportCustomers(CustomerFileFormat.CSV, out));
+
+        assertEquals("id,name,email\n"
+                + ids.get(0) + ",Ada Lovelace,ada@example.com\n"
+                + ids.get(1) + ",\"Smith, \"\"Jr\"\"\",smith@example.com\n"
+                + ids.get(2) + ",Zo\u00eb,zoe@example.com\n", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonIsOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(3, exportService.exportCustomers(CustomerFileFormat.NDJSON, out));
+
+        assertEquals("{\"id\":" + ids.get(0) + ",\"name\":\"Ada Lovelace\",\"email\":\"ada@example.com\"}\n"
+                + "{\"id\":" + ids.get(1) + ",\"name\":\"Smith, \\\"Jr\\\"\",\"email\":\"smith@example.com\"}\n"
+                + "{\"id\":" + ids.get(2) + ",\"name\":\"Zo\u00eb\",\"email\":\"zoe@example.com\"}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void rowsStreamFromAReadOnlyCursor() throws IOException {
+        TransactionProbe out = new TransactionProbe();
+
+        exportService.exportCustomers(CustomerFileFormat.NDJSON, out);
+
+        assertTrue(out.written, "nothing was written");
+        assertTrue(out.readOnly, "export did not run in a read-only transaction");
+        assertFalse(out.autoCommit, "autocommit on: PgJDBC would ignore the fetch size");
+        JdbcTemplate template = (JdbcTemplate) ReflectionTestUtils.getField(exportService, "jdbcTemplate");
+        assertEquals(2, template.getFetchSize());
+    }
+
+    private long create(String name, String email) {
+        return service.createCustomer(CustomerRequest.builder().name(name).email(email).build()).getId();
+    }
+
+    // Looks at the transaction the export is running in from inside its writes.
+    private class TransactionProbe extends ByteArrayOutputStream {
+
+        boolean written;
+        boolean readOnly;
+        boolean autoCommit = true;
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) {
+            super.write(bytes, offset, length);
+            if (written) {
+                return;
+            }
+            written = true;
+            readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+            Connection connection = DataSourceUtils.getConnection(dataSource);
+            try {
+                autoCommit = connection.getAutoCommit();
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            } finally {
+                DataSourceUtils.releaseConnection(connection, dataSource);
+            }
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.hcl.customerservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hcl.customerservice.dto.CustomerFileFormat;
+import com.hcl.customerservice.dto.ImportJobStatus;
+import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.repository.CustomerRepository;
+import com.hcl.customerservice.invalidation.impl.NoOpCustomerChangePublisher;
+import com.hcl.customerservice.typeahead.impl.NoOpTypeaheadIndex;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class CustomerImportServiceImplTest {
+
+    @Mock
+    private CustomerRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CustomerImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new CustomerImportServiceImpl(repository,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new ObjectMapper(), transactionManager, new NoOpTypeaheadIndex(), new NoOpCustomerChangePublisher(), 1, 10);
+        AtomicLong ids = new AtomicLong();
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            customers.forEach(c -> {
+                c.setId(ids.incrementAndGet());
+                c.setVersion(0L);
+            });
+            return customers;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void importsValidRowsAndRejectsTheRest() throws Exception {
+        when(repository.findExistingEmails(anyList())).thenReturn(List.of("taken@example.com"));
+        String csv = "name,email\n"
+                + "Alice,alice@example.com\n"
+                + "\"Smith, Bob\",bob@example.com\n"
+                + ",blank@example.com\n"
+                + "Dup,alice@example.com\n"
+                + "Taken,taken@example.com\n";
+
+        ImportJobStatus status = await(service.startImport(CustomerFileFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).getJobId());
+
+        assertEquals(ImportJobStatus.State.COMPLETED, status.getState());
+        assertEquals(5, status.getRowsRead());
+        assertEquals(2, status.getImported());
+        assertEquals(3, status.getRejected());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Customer>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertEquals("Smith, Bob", saved.getValue().get(1).getName());
+        List<String> rejects = Files.readAllLines(service.getRejectFile(status.getJobId()));
+        assertEquals(4, rejects.size());
+    }
+
+    @Test
+    void parsesNdjson() throws Exception {
+        when(repository.findExistingEmails(anyList())).thenReturn(List.of());
+        String ndjson = "{\"name\":\"Alice\",\"email\":\"alice@example.com\"}\n"
+                + "not json\n";
+
+        ImportJobStatus status = await(service.startImport(CustomerFileFormat.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8))).getJobId());
+
+        assertEquals(1, status.getImported());
+        assertEquals(1, status.getRejected());
+    }
+
+    @Test
+    void databaseFailureFailsTheJob() throws Exception {
+        when(repository.findExistingEmails(anyList())).thenReturn(List.of());
+        when(repository.saveAll(anyList())).thenThrow(new QueryTimeoutException("canceling statement due to statement timeout"));
+        String csv = "name,email\n"
+                + "Alice,alice@example.com\n";
+
+        ImportJobStatus status = await(service.startImport(CustomerFileFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))).getJobId());
+
+        assertEquals(ImportJobStatus.State.FAILED, status.getState());
+        assertEquals("canceling statement due to statement timeout", status.getMessage());
+        assertEquals(0, status.getImported());
+        assertEquals(List.of("line,reason,record"), Files.readAllLines(service.getRejectFile(status.getJobId())));
+    }
+
+    private ImportJobStatus await(String jobId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ImportJobStatus status = service.getStatus(jobId);
+            if (status.getState() == ImportJobStatus.State.COMPLETED || status.getState() == ImportJobStatus.State.FAILED) {
+                return status;
+            }
+            Thread.sleep(50);
+        }
+        fail("Import did not finish");
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hcl.customerservice.service.impl;
+
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerSearchField;
+import com.hcl.customerservice.dto.CustomerSearchMode;
+import com.hcl.customerservice.dto.CursorPage;
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hcl.customerservice.profiling.StatementBudget.assertAtMost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs /customers/search against a real PostgreSQL migrated by Flyway: matching semantics,
+ * keyset paging and that the V2 indexes can serve each kind of predicate.
+ */
+@SpringBootTest(properties = {
+        "customer.profiling.enabled=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CustomerSearchTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private CustomerService service;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void seed() {
+        create("Annabel Lee", "annabel@poems.example");
+        create("Joanna Anderson", "j.anderson@example.com");
+        create("Anne Shirley", "anne@green-gables.example");
+        create("Bob 50% Off", "bob_deals@example.com");
+        create("Bobby Tables", "bobby@example.com");
+    }
+
+    @Test
+    void prefixSearch_isCaseInsensitiveOnNameOrEmail() {
+        assertEquals(List.of("Annabel Lee", "Anne Shirley"), names(service.searchCustomers("ANN", CustomerSearchField.ANY,
+                CustomerSearchMode.PREFIX, null, 10)));
+        assertEquals(List.of("Joanna Anderson"), names(service.searchCustomers("J.And", CustomerSearchField.EMAIL,
+                CustomerSearchMode.PREFIX, null, 10)));
+    }
+
+    @Test
+    void containsSearch_matchesInsideValues() {
+        assertEquals(List.of("Annabel Lee", "Joanna Anderson", "Anne Shirley"), names(service.searchCustomers("ann",
+                CustomerSearchField.NAME, CustomerSearchMode.CONTAINS, null, 10)));
+    }
+
+    @Test
+    void wildcardsInTheTermMatchLiterally() {
+        assertEquals(List.of("Bob 50% Off"), names(service.searchCustomers("50%", CustomerSearchField.NAME,
+                CustomerSearchMode.CONTAINS, null, 10)));
+        assertEquals(List.of("Bob 50% Off"), names(service.searchCustomers("bob_", CustomerSearchField.EMAIL,
+                CustomerSearchMode.PREFIX, null, 10)));
+    }
+
+    @Test
+    void pagesFollowTheCursorWithOneStatementEach() {
+        CursorPage<CustomerResponse> first = assertAtMost(1, () -> service.searchCustomers("an",
+                CustomerSearchField.ANY, CustomerSearchMode.PREFIX, null, 1));
+        CursorPage<CustomerResponse> second = assertAtMost(1, () -> service.searchCustomers("an",
+                CustomerSearchField.ANY, CustomerSearchMode.PREFIX, first.getNextCursor(), 1));
+
+        assertEquals(List.of("Annabel Lee"), names(first));
+        assertEquals(List.of("Anne Shirley"), names(second));
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void migrationIndexesServeBothMatchModes() {
+        assertIndexCondition("select id from customers where lower(name) like '%nna%'", "idx_customer_name_trgm");
+        assertIndexCondition("select id from customers where lower(email) like '%example.c%'", "idx_customer_email_trgm");
+        assertIndexCondition("select id from customers where lower(name) like 'ann%'", "idx_customer_name_");
+        assertIndexCondition("select id from customers where lower(email) like 'bob%'", "idx_customer_email_");
+    }
+
+    // The table is tiny, so the planner would rather scan it. With only bitmap scans allowed, a plan
+    // exists only if an index can evaluate the predicate itself.
+    private void assertIndexCondition(String sql, String index) {
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("set enable_seqscan = off; set enable_indexscan = off; set enable_indexonlyscan = off");
+                StringBuilder lines = new StringBuilder();
+                try (ResultSet rs = statement.executeQuery("explain " + sql)) {
+                    while (rs.next()) {
+                        lines.append(rs.getString(1)).append('\n');
+                    }
+                }
+                statement.execute("reset all");
+                return lines.toString();
+            }
+        });
+        assertTrue(plan.contains("Bitmap Index Scan on " + index), plan);
+    }
+
+    private void create(String name, String email) {
+        service.createCustomer(CustomerRequest.builder().name(name).email(email).build());
+    }
+
+    private static List<String> names(CursorPage<CustomerResponse> page) {
+        List<String> names = new ArrayList<>();
+        page.getContent().forEach(customer -> names.add(customer.getName()));
+        return names;
+    }
+}
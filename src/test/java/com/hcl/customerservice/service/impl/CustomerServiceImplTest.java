@@ -1,25 +1,52 @@
 package com.hcl.customerservice.service.impl;
 
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.cache.impl.InMemoryCustomerCache;
+import com.hcl.customerservice.dto.BatchItemResult;
+import com.hcl.customerservice.dto.BatchResponse;
+import com.hcl.customerservice.dto.CustomerBatchUpdateRequest;
 import com.hcl.customerservice.dto.CustomerRequest;
 import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.dto.CustomerSearchField;
+import com.hcl.customerservice.dto.CustomerSearchMode;
+import com.hcl.customerservice.dto.CursorPage;
 import com.hcl.customerservice.entity.Customer;
 import com.hcl.customerservice.exception.CustomerNotFoundException;
 import com.hcl.customerservice.exception.EmailAlreadyExistsException;
+import com.hcl.customerservice.exception.InvalidCursorException;
+import com.hcl.customerservice.exception.InvalidSearchException;
+import com.hcl.customerservice.exception.PreconditionFailedException;
+import com.hcl.customerservice.invalidation.CustomerChangePublisher;
 import com.hcl.customerservice.repository.CustomerRepository;
+import com.hcl.customerservice.typeahead.impl.InMemoryTypeaheadIndex;
+import com.hcl.customerservice.util.CustomerCursor;
+import jakarta.validation.Validation;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 class CustomerServiceImplTest {
@@ -27,20 +54,29 @@ class CustomerServiceImplTest {
     @Mock
     private CustomerRepository repository;
 
-    @InjectMocks
+    @Mock
+    private CustomerChangePublisher changes;
+
+    private CustomerCache cache;
+
+    private InMemoryTypeaheadIndex typeahead;
+
     private CustomerServiceImpl service;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        cache = new InMemoryCustomerCache(100, Duration.ofMinutes(1));
+        typeahead = new InMemoryTypeaheadIndex();
+        service = new CustomerServiceImpl(repository, cache, Validation.buildDefaultValidatorFactory().getValidator(),
+                typeahead, changes, new TransactionTemplate(mock(PlatformTransactionManager.class)));
     }
 
     @Test
     void createCustomer_success() {
         CustomerRequest req = CustomerRequest.builder().name("Alice").email("alice@example.com").build();
-        when(repository.existsByEmail(req.getEmail())).thenReturn(false);
-        Customer saved = Customer.builder().id(1L).name(req.getName()).email(req.getEmail()).build();
-        when(repository.save(any(Customer.class))).thenReturn(saved);
+        Customer saved = Customer.builder().id(1L).name(req.getName()).email(req.getEmail()).version(0L).build();
+        when(repository.saveAndFlush(any(Customer.class))).thenReturn(saved);
 
         CustomerResponse resp = service.createCustomer(req);
 
@@ -52,8 +88,18 @@ class CustomerServiceImplTest {
     @Test
     void createCustomer_emailExists() {
         CustomerRequest req = CustomerRequest.builder().name("Alice").email("alice@example.com").build();
-        when(repository.existsByEmail(req.getEmail())).thenReturn(true);
+        when(repository.saveAndFlush(any(Customer.class))).thenThrow(emailConflict());
         assertThrows(EmailAlreadyExistsException.class, () -> service.createCustomer(req));
+        verify(repository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void createCustomer_otherIntegrityViolationPropagates() {
+        CustomerRequest req = CustomerRequest.builder().name("Alice").email("alice@example.com").build();
+        DataIntegrityViolationException ex = new DataIntegrityViolationException("other",
+                new ConstraintViolationException("other", new SQLException(), "customers_name_check"));
+        when(repository.saveAndFlush(any(Customer.class))).thenThrow(ex);
+        assertThrows(DataIntegrityViolationException.class, () -> service.createCustomer(req));
     }
 
     @Test
@@ -73,14 +119,13 @@ class CustomerServiceImplTest {
 
     @Test
     void updateCustomer_success() {
-        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").build();
+        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").version(0L).build();
         when(repository.findById(1L)).thenReturn(Optional.of(existing));
-        when(repository.existsByEmail("new@example.com")).thenReturn(false);
-        when(repository.save(any(Customer.class)))
+        when(repository.saveAndFlush(any(Customer.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
 
         CustomerRequest req = CustomerRequest.builder().name("New").email("new@example.com").build();
-        CustomerResponse resp = service.updateCustomer(1L, req);
+        CustomerResponse resp = service.updateCustomer(1L, req, null);
 
         assertEquals("New", resp.getName());
         assertEquals("new@example.com", resp.getEmail());
@@ -88,24 +133,391 @@ class CustomerServiceImplTest {
 
     @Test
     void updateCustomer_conflict() {
-        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").build();
+        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").version(0L).build();
         when(repository.findById(1L)).thenReturn(Optional.of(existing));
-        when(repository.existsByEmail("taken@example.com")).thenReturn(true);
+        when(repository.saveAndFlush(any(Customer.class))).thenThrow(emailConflict());
         CustomerRequest req = CustomerRequest.builder().name("New").email("taken@example.com").build();
-        assertThrows(EmailAlreadyExistsException.class, () -> service.updateCustomer(1L, req));
+        assertThrows(EmailAlreadyExistsException.class, () -> service.updateCustomer(1L, req, null));
+    }
+
+    @Test
+    void updateCustomer_staleIfMatchVersion() {
+        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").version(3L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        CustomerRequest req = CustomerRequest.builder().name("New").email("new@example.com").build();
+
+        assertThrows(PreconditionFailedException.class, () -> service.updateCustomer(1L, req, 2L));
+        verify(repository, never()).saveAndFlush(any(Customer.class));
+        verifyNoInteractions(changes);
+    }
+
+    @Test
+    void deleteCustomer_ifMatchVersionIsCheckedByTheDelete() {
+        when(repository.deleteByIdAndVersionReturningCount(1L, 2L)).thenReturn(0);
+        when(repository.existsById(1L)).thenReturn(true);
+        when(repository.deleteByIdAndVersionReturningCount(2L, 2L)).thenReturn(0);
+        when(repository.existsById(2L)).thenReturn(false);
+
+        assertThrows(PreconditionFailedException.class, () -> service.deleteCustomer(1L, 2L));
+        assertThrows(CustomerNotFoundException.class, () -> service.deleteCustomer(2L, 2L));
+        verify(repository, never()).deleteByIdReturningCount(any());
+    }
+
+    @Test
+    void getCustomerVersion_prefersTheCache() {
+        cache.put(CustomerResponse.builder().id(1L).name("A").email("a@example.com").version(4L).build());
+        when(repository.findVersionById(2L)).thenReturn(Optional.of(7L));
+
+        assertEquals(4L, service.getCustomerVersion(1L));
+        assertEquals(7L, service.getCustomerVersion(2L));
+        verify(repository, never()).findVersionById(1L);
     }
 
     @Test
     void deleteCustomer_notFound() {
-        when(repository.existsById(1L)).thenReturn(false);
-        assertThrows(CustomerNotFoundException.class, () -> service.deleteCustomer(1L));
+        when(repository.deleteByIdReturningCount(1L)).thenReturn(0);
+        assertThrows(CustomerNotFoundException.class, () -> service.deleteCustomer(1L, null));
     }
 
     @Test
     void deleteCustomer_success() {
-        when(repository.existsById(1L)).thenReturn(true);
-        doNothing().when(repository).deleteById(1L);
-        assertDoesNotThrow(() -> service.deleteCustomer(1L));
-        verify(repository).deleteById(1L);
+        when(repository.deleteByIdReturningCount(1L)).thenReturn(1);
+        assertDoesNotThrow(() -> service.deleteCustomer(1L, null));
+        verify(repository).deleteByIdReturningCount(1L);
+    }
+
+    @Test
+    void getCustomerById_servedFromCacheOnRepeat() {
+        Customer existing = Customer.builder().id(1L).name("A").email("a@example.com").version(0L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+
+        service.getCustomerById(1L);
+        CustomerResponse resp = service.getCustomerById(1L);
+
+        assertEquals("A", resp.getName());
+        verify(repository, times(1)).findById(1L);
+        assertEquals(1, cache.stats().hitCount());
+    }
+
+    @Test
+    void createCustomer_reusesTheEmailOfADeletedCustomer() {
+        Customer existing = Customer.builder().id(1L).name("A").email("a@example.com").version(0L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        service.getCustomerById(1L);
+        when(repository.deleteByIdReturningCount(1L)).thenReturn(1);
+        service.deleteCustomer(1L, null);
+
+        Customer recreated = Customer.builder().id(2L).name("B").email("a@example.com").version(0L).build();
+        when(repository.saveAndFlush(any(Customer.class))).thenReturn(recreated);
+        CustomerResponse resp = service.createCustomer(CustomerRequest.builder().name("B").email("a@example.com").build());
+
+        assertEquals(2L, resp.getId());
+        verify(repository).saveAndFlush(any(Customer.class));
+    }
+
+    @Test
+    void updateCustomer_cachedOwnerOfEmailIsNotTrusted() {
+        // Customer 2 is cached with the email, but has since changed it elsewhere: the database decides.
+        cache.put(CustomerResponse.builder().id(2L).name("B").email("b@example.com").version(0L).build());
+        Customer existing = Customer.builder().id(1L).name("A").email("a@example.com").version(0L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        CustomerResponse resp = service.updateCustomer(1L, CustomerRequest.builder().name("A").email("b@example.com").build(), null);
+
+        assertEquals("b@example.com", resp.getEmail());
+    }
+
+    @Test
+    void updateCustomer_evictsCachedEntry() {
+        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").version(0L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        service.getCustomerById(1L);
+
+        service.updateCustomer(1L, CustomerRequest.builder().name("New").email("new@example.com").build(), null);
+
+        assertEquals("New", service.getCustomerById(1L).getName());
+    }
+
+    @Test
+    void committedWritesKeepOlderCopiesOutOfTheCache() {
+        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").version(0L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            customer.setVersion(1L);
+            return customer;
+        });
+        when(repository.deleteByIdReturningCount(2L)).thenReturn(1);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.updateCustomer(1L, CustomerRequest.builder().name("New").email("new@example.com").build(), null);
+            service.deleteCustomer(2L, null);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // What a read from a lagging replica would try to cache.
+        cache.put(CustomerResponse.builder().id(1L).name("Old").email("old@example.com").version(0L).build());
+        cache.put(CustomerResponse.builder().id(2L).name("Gone").email("gone@example.com").version(5L).build());
+        assertNull(cache.getIfPresent(1L));
+        assertNull(cache.getIfPresent(2L));
+        cache.put(CustomerResponse.builder().id(1L).name("New").email("new@example.com").version(1L).build());
+        assertNotNull(cache.getIfPresent(1L));
+    }
+
+    @Test
+    void createCustomers_reportsPerItemResults() {
+        List<CustomerRequest> requests = List.of(
+                CustomerRequest.builder().name("A").email("a@example.com").build(),
+                CustomerRequest.builder().name("").email("b@example.com").build(),
+                CustomerRequest.builder().name("C").email("a@example.com").build(),
+                CustomerRequest.builder().name("D").email("taken@example.com").build());
+        when(repository.findExistingEmails(anyCollection())).thenReturn(List.of("taken@example.com"));
+        when(repository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            customers.forEach(c -> {
+                c.setId(10L);
+                c.setVersion(0L);
+            });
+            return customers;
+        });
+
+        BatchResponse response = service.createCustomers(requests);
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(3, response.getFailed());
+        assertEquals(BatchItemResult.Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(10L, response.getResults().get(0).getId());
+        assertEquals(BatchItemResult.Status.INVALID, response.getResults().get(1).getStatus());
+        assertEquals(BatchItemResult.Status.CONFLICT, response.getResults().get(2).getStatus());
+        assertEquals(BatchItemResult.Status.CONFLICT, response.getResults().get(3).getStatus());
+        verify(repository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void updateCustomers_rejectsEmailOwnedByAnotherCustomer() {
+        Customer first = Customer.builder().id(1L).name("A").email("a@example.com").version(0L).build();
+        Customer second = Customer.builder().id(2L).name("B").email("b@example.com").version(0L).build();
+        when(repository.findAllById(anyList())).thenReturn(List.of(first, second));
+        when(repository.findByEmailIn(anyList())).thenReturn(List.of(second));
+
+        BatchResponse response = service.updateCustomers(List.of(
+                CustomerBatchUpdateRequest.builder().id(1L).name("A2").email("a2@example.com").build(),
+                CustomerBatchUpdateRequest.builder().id(2L).name("B2").email("b@example.com").build(),
+                CustomerBatchUpdateRequest.builder().id(3L).name("C").email("b@example.com").build()));
+
+        assertEquals(BatchItemResult.Status.UPDATED, response.getResults().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.UPDATED, response.getResults().get(1).getStatus());
+        assertEquals(BatchItemResult.Status.CONFLICT, response.getResults().get(2).getStatus());
+        assertEquals("A2", first.getName());
+    }
+
+    @Test
+    void createCustomers_lostRaceOnEmailIsSettledPerItem() {
+        // Both emails pass the existence check; a concurrent insert then takes b@example.com.
+        when(repository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            if (customers.stream().anyMatch(c -> c.getEmail().equals("b@example.com"))) {
+                throw emailConflict();
+            }
+            customers.forEach(c -> {
+                c.setId(10L);
+                c.setVersion(0L);
+            });
+            return customers;
+        });
+
+        BatchResponse response = service.createCustomers(List.of(
+                CustomerRequest.builder().name("A").email("a@example.com").build(),
+                CustomerRequest.builder().name("B").email("b@example.com").build()));
+
+        assertEquals(BatchItemResult.Status.CREATED, response.getResults().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.CONFLICT, response.getResults().get(1).getStatus());
+        assertEquals(1, response.getSucceeded());
+        verify(repository, times(3)).saveAllAndFlush(anyList());
+        verify(changes).changed(10L, 0L);
+    }
+
+    @Test
+    void updateCustomers_lostRaceOnEmailIsSettledPerItem() {
+        Customer first = Customer.builder().id(1L).name("A").email("a@example.com").version(0L).build();
+        Customer second = Customer.builder().id(2L).name("B").email("b@example.com").version(0L).build();
+        when(repository.findAllById(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return List.of(first, second).stream().filter(c -> ids.contains(c.getId())).toList();
+        });
+        when(repository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Customer> customers = invocation.getArgument(0);
+            if (customers.stream().anyMatch(c -> c.getEmail().equals("taken@example.com"))) {
+                throw emailConflict();
+            }
+            return customers;
+        });
+
+        BatchResponse response = service.updateCustomers(List.of(
+                CustomerBatchUpdateRequest.builder().id(1L).name("A2").email("a2@example.com").build(),
+                CustomerBatchUpdateRequest.builder().id(2L).name("B2").email("taken@example.com").build()));
+
+        assertEquals(BatchItemResult.Status.UPDATED, response.getResults().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.CONFLICT, response.getResults().get(1).getStatus());
+        assertEquals(2L, response.getResults().get(1).getId());
+    }
+
+    @Test
+    void createCustomers_otherIntegrityViolationPropagates() {
+        when(repository.saveAllAndFlush(anyList())).thenThrow(new DataIntegrityViolationException("other",
+                new ConstraintViolationException("other", new SQLException(), "customers_name_check")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.createCustomers(List.of(
+                CustomerRequest.builder().name("A").email("a@example.com").build())));
+    }
+
+    @Test
+    void deleteCustomers_deletesExistingInOneStatement() {
+        when(repository.findExistingIds(anyList())).thenReturn(List.of(1L));
+
+        BatchResponse response = service.deleteCustomers(List.of(1L, 2L));
+
+        assertEquals(BatchItemResult.Status.DELETED, response.getResults().get(0).getStatus());
+        assertEquals(BatchItemResult.Status.NOT_FOUND, response.getResults().get(1).getStatus());
+        verify(repository).deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    void getCustomersAfter_returnsNextCursorWhenMoreRowsExist() {
+        List<Customer> rows = List.of(
+                Customer.builder().id(1L).name("A").email("a@example.com").version(0L).build(),
+                Customer.builder().id(2L).name("B").email("b@example.com").version(0L).build(),
+                Customer.builder().id(3L).name("C").email("c@example.com").version(0L).build());
+        when(repository.findAllBy(any(Pageable.class))).thenReturn(rows);
+
+        CursorPage<CustomerResponse> first = service.getCustomersAfter(null, 2, CustomerCursor.SortKey.ID, false);
+
+        assertEquals(2, first.getSize());
+        assertNotNull(first.getNextCursor());
+
+        when(repository.findByIdAfter(eq(2L), any(Pageable.class))).thenReturn(List.of(rows.get(2)));
+        CursorPage<CustomerResponse> second = service.getCustomersAfter(first.getNextCursor(), 2, CustomerCursor.SortKey.ID, false);
+
+        assertEquals(1, second.getSize());
+        assertNull(second.getNextCursor());
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void searchCustomers_pagesOnIdAfterTheCursor() {
+        List<Customer> rows = List.of(
+                Customer.builder().id(4L).name("Ann").email("ann@example.com").version(0L).build(),
+                Customer.builder().id(9L).name("Anna").email("anna@example.com").version(0L).build());
+        when(repository.searchByNameOrEmail(eq("an%"), eq(0L), any(Pageable.class))).thenReturn(rows);
+
+        CursorPage<CustomerResponse> first = service.searchCustomers(" An ", CustomerSearchField.ANY,
+                CustomerSearchMode.PREFIX, null, 1);
+
+        assertEquals(1, first.getSize());
+        assertEquals(4L, first.getContent().get(0).getId());
+        assertNotNull(first.getNextCursor());
+
+        when(repository.searchByNameOrEmail(eq("an%"), eq(4L), any(Pageable.class))).thenReturn(rows.subList(1, 2));
+        CursorPage<CustomerResponse> second = service.searchCustomers("an", CustomerSearchField.ANY,
+                CustomerSearchMode.PREFIX, first.getNextCursor(), 1);
+
+        assertEquals(9L, second.getContent().get(0).getId());
+        assertNull(second.getNextCursor());
+    }
+
+    @Test
+    void searchCustomers_rejectsCursorFromAnotherListing() {
+        String byName = new CustomerCursor(CustomerCursor.SortKey.NAME, false, "Ann", 4L).encode();
+        assertThrows(InvalidCursorException.class, () -> service.searchCustomers("ann", CustomerSearchField.NAME,
+                CustomerSearchMode.PREFIX, byName, 10));
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void likePattern_escapesWildcardsAndAnchorsByMode() {
+        assertEquals("50\\%\\_off\\\\%", CustomerServiceImpl.likePattern("50%_OFF\\", CustomerSearchMode.PREFIX));
+        assertEquals("%@example.%", CustomerServiceImpl.likePattern("@Example.", CustomerSearchMode.CONTAINS));
+    }
+
+    @Test
+    void likePattern_enforcesTermLength() {
+        assertThrows(InvalidSearchException.class, () -> CustomerServiceImpl.likePattern(null, CustomerSearchMode.PREFIX));
+        assertThrows(InvalidSearchException.class, () -> CustomerServiceImpl.likePattern("  ", CustomerSearchMode.PREFIX));
+        assertThrows(InvalidSearchException.class, () -> CustomerServiceImpl.likePattern("ab", CustomerSearchMode.CONTAINS));
+        assertThrows(InvalidSearchException.class, () -> CustomerServiceImpl.likePattern(
+                "a".repeat(CustomerServiceImpl.MAX_SEARCH_TERM_LENGTH + 1), CustomerSearchMode.PREFIX));
+        assertEquals("a%", CustomerServiceImpl.likePattern("a", CustomerSearchMode.PREFIX));
+    }
+
+    @Test
+    void writesKeepTheTypeaheadIndexCurrent() {
+        Customer saved = Customer.builder().id(1L).name("Alice Smith").email("alice@example.com").version(0L).build();
+        when(repository.saveAndFlush(any(Customer.class))).thenReturn(saved);
+        service.createCustomer(CustomerRequest.builder().name("Alice Smith").email("alice@example.com").build());
+        assertEquals(1, typeahead.lookup("smi", 10).size());
+
+        when(repository.upsertByEmail("Alice Jones", "alice@example.com")).thenReturn(upserted(1L, 1L));
+        service.upsertCustomerByEmail(CustomerRequest.builder().name("Alice Jones").email("alice@example.com").build());
+        assertTrue(typeahead.lookup("smi", 10).isEmpty());
+        assertEquals(1, typeahead.lookup("jon", 10).size());
+
+        when(repository.deleteByIdReturningCount(1L)).thenReturn(1);
+        service.deleteCustomer(1L, null);
+        assertEquals(0, typeahead.size());
+    }
+
+    @Test
+    void upsertCustomerByEmail_singleStatement() {
+        when(repository.upsertByEmail("A", "a@example.com")).thenReturn(upserted(7L, 0L));
+
+        CustomerResponse resp = service.upsertCustomerByEmail(
+                CustomerRequest.builder().name("A").email("a@example.com").build());
+
+        assertEquals(7L, resp.getId());
+        verify(repository).upsertByEmail("A", "a@example.com");
+        verifyNoMoreInteractions(repository);
+    }
+
+    @Test
+    void writesPublishChangesForOtherInstances() {
+        Customer existing = Customer.builder().id(1L).name("Old").email("old@example.com").version(3L).build();
+        when(repository.findById(1L)).thenReturn(Optional.of(existing));
+        when(repository.saveAndFlush(any(Customer.class))).thenAnswer(invocation -> {
+            Customer customer = invocation.getArgument(0);
+            customer.setVersion(customer.getVersion() + 1);
+            return customer;
+        });
+        service.updateCustomer(1L, CustomerRequest.builder().name("New").email("new@example.com").build(), null);
+
+        when(repository.deleteByIdReturningCount(2L)).thenReturn(1);
+        service.deleteCustomer(2L, null);
+
+        verify(changes).changed(1L, 4L);
+        verify(changes).deleted(2L);
+    }
+
+    private static CustomerRepository.UpsertedCustomer upserted(long id, long version) {
+        return new CustomerRepository.UpsertedCustomer() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static DataIntegrityViolationException emailConflict() {
+        return new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException(), "uk_customer_email"));
     }
 }
@@ -0,0 +1,104 @@
+package com.hcl.customerservice.service.impl;
+
+import com.hcl.customerservice.cache.CustomerCache;
+import com.hcl.customerservice.dto.BatchResponse;
+import com.hcl.customerservice.dto.CustomerRequest;
+import com.hcl.customerservice.dto.CustomerResponse;
+import com.hcl.customerservice.exception.CustomerNotFoundException;
+import com.hcl.customerservice.service.CustomerService;
+import com.hcl.customerservice.support.EmbeddedPostgresTest;
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static com.hcl.customerservice.profiling.StatementBudget.assertAtMost;
+import static com.hcl.customerservice.profiling.StatementBudget.assertThrowsWithin;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Guards the number of SQL statements each service operation issues against a real PostgreSQL,
+ * so an extra existence check or an N+1 shows up as a failing build.
+ */
+@SpringBootTest(properties = {
+        "customer.profiling.enabled=true"
+})
+class CustomerServiceStatementBudgetTest extends EmbeddedPostgresTest {
+
+    @Autowired
+    private CustomerService service;
+
+    @Autowired
+    private CustomerCache cache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void createCustomer_insertsWithoutExistenceCheck() {
+        // one INSERT, plus at most one nextval when the pooled id block runs out
+        assertAtMost(2, () -> service.createCustomer(newRequest()));
+    }
+
+    @Test
+    void getCustomerById_isOneSelectThenCached() {
+        CustomerResponse created = service.createCustomer(newRequest());
+        cache.clear();
+        assertAtMost(1, () -> service.getCustomerById(created.getId()));
+        assertAtMost(0, () -> service.getCustomerById(created.getId()));
+    }
+
+    @Test
+    void updateCustomer_isSelectPlusUpdate() {
+        CustomerResponse created = service.createCustomer(newRequest());
+        assertAtMost(2, () -> service.updateCustomer(created.getId(), newRequest(), null));
+    }
+
+    @Test
+    void deleteCustomer_isSingleDelete() {
+        CustomerResponse created = service.createCustomer(newRequest());
+        assertAtMost(1, () -> service.deleteCustomer(created.getId(), null));
+        assertThrowsWithin(1, CustomerNotFoundException.class, () -> service.deleteCustomer(created.getId(), null));
+    }
+
+    @Test
+    void getAllCustomers_isPagePlusCount() {
+        service.createCustomer(newRequest());
+        assertAtMost(2, () -> service.getAllCustomers(PageRequest.of(0, 20)));
+    }
+
+    @Test
+    void conditionalGetsReadVersionsOnly() {
+        CustomerResponse created = service.createCustomer(newRequest());
+        cache.clear();
+        assertAtMost(1, () -> service.getCustomerVersion(created.getId()));
+    }
+
+    @Test
+    void createCustomers_batchDoesNotScaleWithSize() {
+        List<CustomerRequest> batch = IntStream.range(0, 250).mapToObj(i -> newRequest()).toList();
+        // email lookup, a handful of nextval calls (50 ids each) and batched inserts (100 rows each)
+        BatchResponse response = assertAtMost(12, () -> service.createCustomers(batch));
+        assertEquals(250, response.getSucceeded());
+    }
+
+    @Test
+    void statementsOutsideHibernateCount() {
+        AssertionFailedError error = assertThrows(AssertionFailedError.class,
+                () -> assertAtMost(0, () -> jdbcTemplate.queryForObject("select 1", Integer.class)));
+        assertTrue(error.getMessage().contains("1 statements"));
+    }
+
+    private static CustomerRequest newRequest() {
+        String unique = UUID.randomUUID().toString();
+        return CustomerRequest.builder().name("Budget " + unique).email(unique + "@example.com").build();
+    }
+}
@@ -0,0 +1,70 @@
+package com.hcl.customerservice.support;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Base class for Spring tests that need a real PostgreSQL. One embedded server is started per JVM
+ * and every application context gets its own empty database on it, so cached contexts never see
+ * each other's rows.
+ */
+public abstract class EmbeddedPostgresTest {
+
+    private static final EmbeddedPostgres POSTGRES = startPostgres();
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private static volatile String jdbcUrl;
+
+    // Runs once per context being built; the URL is fixed here so every lookup sees one database.
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        String url = POSTGRES.getJdbcUrl("postgres", createDatabase());
+        jdbcUrl = url;
+        registry.add("spring.datasource.url", () -> url);
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    /**
+     * JDBC URL of the database created for the context currently being built. Resolve it from a
+     * property supplier, which runs after every {@code @DynamicPropertySource} method.
+     */
+    protected static String jdbcUrl() {
+        return jdbcUrl;
+    }
+
+    private static String createDatabase() {
+        String name = "customer_test_" + DATABASES.incrementAndGet();
+        try (Connection connection = POSTGRES.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create database " + name);
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Could not create test database " + name, ex);
+        }
+        return name;
+    }
+
+    private static EmbeddedPostgres startPostgres() {
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }, "embedded-postgres-shutdown"));
+            return postgres;
+        } catch (IOException ex) {
+            throw new IllegalStateException("Could not start embedded PostgreSQL", ex);
+        }
+    }
+}
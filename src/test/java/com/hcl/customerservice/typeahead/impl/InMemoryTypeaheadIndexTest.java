@@ -0,0 +1,143 @@
+package com.hcl.customerservice.typeahead.impl;
+
+import com.hcl.customerservice.dto.CustomerResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryTypeaheadIndexTest {
+
+    private final InMemoryTypeaheadIndex index = new InMemoryTypeaheadIndex();
+
+    @Test
+    void matchesNameWordsAndEmailPrefixesCaseInsensitively() {
+        index.put(1, 0, "Annabel Lee", "annabel@poems.example");
+        index.put(2, 0, "Mary-Jane Watson", "mj@example.com");
+        index.put(3, 0, "Joanna Anderson", "j.anderson@example.com");
+
+        assertEquals(List.of(1L), ids(index.lookup("ANNA", 10)));
+        assertEquals(List.of(2L), ids(index.lookup("jane", 10)));
+        assertEquals(List.of(3L), ids(index.lookup("j.and", 10)));
+        assertEquals(List.of(3L, 1L), ids(index.lookup("an", 10))); // term order: anderson, annabel
+    }
+
+    @Test
+    void multiWordQueriesRequireEveryWord() {
+        index.put(1, 0, "Anne Shirley", "anne@green-gables.example");
+        index.put(2, 0, "Anne Baker", "baker@example.com");
+
+        assertEquals(List.of(1L), ids(index.lookup("anne sh", 10)));
+        assertEquals(List.of(2L), ids(index.lookup("b ann", 10)));
+    }
+
+    @Test
+    void eachCustomerIsReturnedOnceUpToTheLimit() {
+        index.put(1, 0, "Ann Annabel", "ann@example.com");
+        for (long id = 2; id <= 30; id++) {
+            index.put(id, 0, "Ann " + id, "a" + id + "@example.com");
+        }
+
+        List<CustomerResponse> results = index.lookup("ann", 5);
+
+        assertEquals(5, results.size());
+        assertEquals(5, results.stream().map(CustomerResponse::getId).distinct().count());
+    }
+
+    @Test
+    void updatesReplaceOldTermsAndRemovesDropThem() {
+        index.put(1, 0, "Alice Smith", "alice@example.com");
+        index.put(1, 1, "Alice Jones", "alice.jones@example.com");
+
+        assertTrue(index.lookup("smith", 10).isEmpty());
+        assertEquals("Alice Jones", index.lookup("jon", 10).get(0).getName());
+
+        index.remove(1);
+
+        assertTrue(index.lookup("alice", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void postingsStayOrderedAcrossGrowthAndRemoval() {
+        for (long id = 100; id >= 1; id--) {
+            index.put(id, 0, "Common Name", "c" + id + "@example.com");
+        }
+        for (long id = 2; id <= 100; id += 2) {
+            index.remove(id);
+        }
+
+        List<Long> ids = ids(index.lookup("common", 50));
+
+        assertEquals(50, ids.size());
+        assertEquals(1L, ids.get(0));
+        assertEquals(99L, ids.get(49));
+    }
+
+    @Test
+    void writesDuringLoadWinOverTheSnapshot() {
+        assertFalse(index.isReady());
+
+        index.load(sink -> {
+            index.put(1, 1, "Renamed", "new@example.com");
+            index.remove(2);
+            sink.accept(1, 0, "Stale", "old@example.com");
+            sink.accept(2, 0, "Deleted", "deleted@example.com");
+            sink.accept(3, 0, "Untouched", "untouched@example.com");
+        });
+
+        assertTrue(index.isReady());
+        assertEquals(List.of(1L), ids(index.lookup("renamed", 10)));
+        assertTrue(index.lookup("stale", 10).isEmpty());
+        assertTrue(index.lookup("deleted", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void olderVersionsAndWritesAfterRemovalAreIgnored() {
+        index.put(1, 2, "Newer Name", "newer@example.com");
+        index.put(1, 1, "Older Name", "older@example.com");
+        index.put(2, 0, "Gone", "gone@example.com");
+        index.remove(2);
+        index.put(2, 1, "Gone Again", "gone@example.com");
+
+        assertEquals("Newer Name", index.lookup("newer", 10).get(0).getName());
+        assertTrue(index.lookup("older", 10).isEmpty());
+        assertTrue(index.lookup("gone", 10).isEmpty());
+    }
+
+    @Test
+    void reloadDropsCustomersMissingFromTheNewSnapshot() {
+        index.load(sink -> {
+            sink.accept(1, 0, "Kept", "kept@example.com");
+            sink.accept(2, 0, "Deleted Meanwhile", "deleted@example.com");
+        });
+        index.load(sink -> {
+            index.put(3, 0, "Created During Reload", "created@example.com");
+            sink.accept(1, 0, "Kept", "kept@example.com");
+        });
+
+        assertEquals(List.of(1L), ids(index.lookup("kept", 10)));
+        assertTrue(index.lookup("deleted", 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.lookup("created", 10)));
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void suspendedIndexIsNotReady() {
+        index.load(sink -> sink.accept(1, 0, "Anyone", "anyone@example.com"));
+
+        index.suspend();
+        assertFalse(index.isReady());
+
+        index.resume();
+        assertTrue(index.isReady());
+    }
+
+    private static List<Long> ids(List<CustomerResponse> results) {
+        return results.stream().map(CustomerResponse::getId).toList();
+    }
+}
@@ -0,0 +1,34 @@
+package com.hcl.customerservice.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvSupportTest {
+
+    @Test
+    void quotesOnlyWhenNeeded() throws Exception {
+        StringWriter out = new StringWriter();
+        CsvSupport.writeField(out, "plain");
+        out.write(',');
+        CsvSupport.writeField(out, "Smith, \"Jr\"");
+        assertEquals("plain,\"Smith, \"\"Jr\"\"\"", out.toString());
+    }
+
+    @Test
+    void parsesWhatItWrites() throws Exception {
+        StringWriter out = new StringWriter();
+        CsvSupport.writeField(out, "Smith, \"Jr\"");
+        out.write(',');
+        CsvSupport.writeField(out, "a@example.com");
+        assertEquals(List.of("Smith, \"Jr\"", "a@example.com"), CsvSupport.parseLine(out.toString()));
+    }
+
+    @Test
+    void rejectsUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvSupport.parseLine("\"open,a@example.com"));
+    }
+}
@@ -0,0 +1,26 @@
+package com.hcl.customerservice.util;
+
+import com.hcl.customerservice.entity.Customer;
+import com.hcl.customerservice.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCursorTest {
+
+    @Test
+    void roundTripsNameCursorContainingSeparator() {
+        Customer last = Customer.builder().id(42L).name("Smith | Jones").email("s@example.com").build();
+        CustomerCursor cursor = CustomerCursor.after(last, CustomerCursor.SortKey.NAME, true);
+
+        CustomerCursor decoded = CustomerCursor.decode(cursor.encode());
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void rejectsGarbage() {
+        assertThrows(InvalidCursorException.class, () -> CustomerCursor.decode("not-a-cursor!"));
+        assertThrows(InvalidCursorException.class, () -> CustomerCursor.decode("Zm9vfGJhcg"));
+    }
+}